@@ -0,0 +1,74 @@
+package com.zero.virtualThread.simple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 载体 CPU 亲和性示例: 工作窃取模式下每个允许的 CPU 一个载体, 分别在绑定与不绑定 CPU 时运行大量短任务,
+ * 每个任务通过 sched_getcpu 检查所在载体是否换了 CPU, 统计载体在核之间迁移的次数.
+ * 同时运行一些平台线程制造干扰, 不绑定时操作系统会把载体迁移到其他核上.
+ * 运行参数 --enable-native-access=ALL-UNNAMED, [tasks=200000], 仅支持 Linux.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 02:40 </p>
+ */
+public class AffinityExample {
+
+    public static void main(String[] args) throws InterruptedException {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int[] cpus = CpuAffinity.allowedCpus();
+        System.out.println("allowed cpus: " + Arrays.toString(cpus));
+        for (boolean pinned : new boolean[]{false, true}) {
+            run(cpus, pinned, tasks);
+        }
+    }
+
+    private static void run(int[] cpus, boolean pinned, int tasks) throws InterruptedException {
+        // 干扰线程, 与载体争抢 CPU
+        List<Thread> noise = new ArrayList<>();
+        for (int i = 0; i < cpus.length; i++) {
+            noise.add(Thread.ofPlatform().daemon().start(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.onSpinWait();
+                }
+            }));
+        }
+        LongAdder migrations = new LongAdder();
+        AtomicIntegerArray lastCpu = new AtomicIntegerArray(cpus.length);
+        for (int i = 0; i < cpus.length; i++) {
+            lastCpu.set(i, -1);
+        }
+        long start = System.nanoTime();
+        try (var scheduler = new SimpleVirtualScheduler(cpus.length, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            if (pinned) {
+                scheduler.setCarrierAffinity(cpus);
+            }
+            scheduler.run();
+            List<SimpleVirtualThread> batch = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                batch.add(new SimpleVirtualThread(() -> {
+                    int carrier = CarrierThread.current().index;
+                    int cpu = CpuAffinity.currentCpu();
+                    int previous = lastCpu.getAndSet(carrier, cpu);
+                    if (previous != -1 && previous != cpu) {
+                        migrations.increment();
+                    }
+                    long deadline = System.nanoTime() + 5_000;
+                    while (System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                }));
+            }
+            scheduler.schedule(batch);
+            batch.forEach(SimpleVirtualThread::join);
+            int[] bound = Arrays.stream(scheduler.carriers()).mapToInt(c -> c.cpu).toArray();
+            System.out.printf("pinned: %s, carrier cpus: %s, %,d tasks in %d ms, carrier migrations: %,d%n", pinned,
+                    Arrays.toString(bound), tasks, (System.nanoTime() - start) / 1_000_000, migrations.sum());
+        } finally {
+            noise.forEach(Thread::interrupt);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 可伸缩的载体线程池, 用于调度线程模式({@link SimpleVirtualScheduler.DispatchMode#SPIN}/{@link SimpleVirtualScheduler.DispatchMode#PARK}).
+ *  - 正常情况下保持 parallelism 个载体线程.
+ *  - 虚拟线程因为 pinned(synchronized、本地方法栈帧) 无法让出, 或者调用了阻塞平台线程的方法(Thread.sleep、锁等)时, 会一直占用载体.
+ *    监控线程定期检查每个载体: 当前这次挂载超过阈值, 并且载体线程处于阻塞/等待状态, 即认为该载体被阻塞,
+ *    并临时增加同样数量的补偿载体, 总数不超过上限. 只是运行时间长的计算任务(载体处于 RUNNABLE)不会触发补偿, 否则会造成超额订阅;
+ *    阻塞在本地方法中的 IO 同样显示为 RUNNABLE, 无法识别.
+ *  - 被阻塞的载体恢复后降低核心线程数, 多余的载体在下次空闲时退出.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 21:10 </p>
+ */
+final class CarrierPool extends ThreadPoolExecutor {
+    private final SimpleVirtualScheduler scheduler;
+    /// 正常情况下的载体数
+    private final int parallelism;
+    /// 所有载体线程, 按编号存放, 与调度器共享. 数组长度即载体数上限.
+    private final CarrierThread[] carriers;
+    /// 判定载体被阻塞的挂载时长
+    private final long blockedThresholdNanos;
+    private final Thread monitor;
+    /// 累计增加补偿载体的次数
+    private final AtomicLong compensations = new AtomicLong();
+    /// 最近一次检查时被阻塞的载体数
+    private volatile int blocked;
+
+    CarrierPool(SimpleVirtualScheduler scheduler, int parallelism, CarrierThread[] carriers, long blockedThresholdNanos) {
+        super(parallelism, carriers.length, 0, TimeUnit.NANOSECONDS, new LinkedBlockingQueue<>());
+        this.scheduler = scheduler;
+        this.parallelism = parallelism;
+        this.carriers = carriers;
+        this.blockedThresholdNanos = blockedThresholdNanos;
+        setThreadFactory(this::newCarrier);
+        monitor = new Thread(this::monitor, "simple-carrier-monitor");
+        monitor.setDaemon(true);
+        monitor.start();
+    }
+
+    /**
+     * 创建载体线程并占用一个空闲编号, 线程退出时归还. 编号用尽时返回 null, 线程池不会再创建新线程.
+     */
+    private synchronized Thread newCarrier(Runnable worker) {
+        for (int i = 0; i < carriers.length; i++) {
+            if (carriers[i] == null) {
+                int index = i;
+                return carriers[i] = new CarrierThread(scheduler, index, () -> {
+                    try {
+                        worker.run();
+                    } finally {
+                        release(index);
+                    }
+                });
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 载体退出时归还编号, 它的运行指标并入调度器的累计值
+     */
+    private synchronized void release(int index) {
+        scheduler.metrics().retire(carriers, index);
+    }
+
+    /**
+     * 监控线程: 每半个阈值检查一次被阻塞的载体, 并据此调整核心线程数
+     */
+    private void monitor() {
+        while (!isShutdown()) {
+            LockSupport.parkNanos(this, blockedThresholdNanos / 2);
+            int n = countBlocked();
+            blocked = n;
+            int target = Math.min(parallelism + n, getMaximumPoolSize());
+            int core = getCorePoolSize();
+            if (target > core) {
+                compensations.addAndGet(target - core);
+                setCorePoolSize(target);
+            } else if (target < core) {
+                // 多余的载体会在空闲时退出
+                setCorePoolSize(target);
+            }
+        }
+    }
+
+    /// 当前这次挂载已经超过阈值、并且载体线程正处于阻塞或等待状态的载体数
+    private int countBlocked() {
+        long now = System.nanoTime();
+        int n = 0;
+        for (CarrierThread carrier : carriers) {
+            if (carrier != null) {
+                long mountedAt = carrier.mountedAt;
+                if (mountedAt != 0 && now - mountedAt > blockedThresholdNanos && isBlocked(carrier)) {
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    private static boolean isBlocked(Thread carrier) {
+        return switch (carrier.getState()) {
+            case BLOCKED, WAITING, TIMED_WAITING -> true;
+            default -> false;
+        };
+    }
+
+    int blocked() {
+        return blocked;
+    }
+
+    long compensations() {
+        return compensations.get();
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        LockSupport.unpark(monitor);
+    }
+}
@@ -0,0 +1,100 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+/**
+ * 载体线程，即真正执行 {@link SimpleVirtualThread} 的平台线程.
+ *  - 保存每个载体私有的调度状态, 如工作窃取模式下的本地运行队列和 runNext 槽位、可复用虚拟线程的缓存池、预留的 id 号段以及运行指标.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 11:05 </p>
+ */
+final class CarrierThread extends Thread {
+    /// 每个载体最多缓存的可复用虚拟线程数
+    static final int POOL_CAPACITY = 256;
+
+    /// 所属调度器
+    final SimpleVirtualScheduler scheduler;
+    /// 载体编号
+    final int index;
+    /// 本地运行队列(仅工作窃取模式使用): 自己从头部取，其他载体从尾部窃取.
+    final Deque<SimpleVirtualThread> runQueue = new ConcurrentLinkedDeque<>();
+    /// 从全局队列批量取出的任务放入本地队列尾部, 预先创建避免每次分配
+    final Consumer<SimpleVirtualThread> localSink = runQueue::offerLast;
+    /// 由本载体上运行的虚拟线程唤醒、下一个优先执行的虚拟线程(仅工作窃取模式使用), 其他载体只在本载体长时间未卸载时窃取
+    volatile SimpleVirtualThread runNext;
+    /// 连续从 runNext 取任务的次数, 只由本载体访问
+    int runNextStreak;
+    /// 查找任务的次数, 用于定期优先检查全局队列, 只由本载体访问
+    int ticks;
+    /// 绑定的 CPU, -1 表示未绑定
+    volatile int cpu = -1;
+    /// 是否因无任务可执行而 park
+    volatile boolean parked = false;
+    /// 已结束、等待复用的虚拟线程, 只由本载体访问
+    final ArrayDeque<SimpleVirtualThread> pool = new ArrayDeque<>();
+    /// 本载体预留的 id 号段 [nextId, idLimit)
+    int nextId;
+    int idLimit;
+    /// 所属 {@link ShardedScheduler} 分片的编号, 在载体启动前设置, 不属于分片时为 -1
+    int shard = -1;
+    /// 本载体的事件追踪缓冲区, 首次记录时创建
+    Tracer.Buffer trace;
+    /// 运行指标, 只由本载体写入: 挂载次数、运行虚拟线程的累计时长、虚拟线程从提交到开始运行的延迟
+    volatile long mounts;
+    /// 当前这次挂载的开始时间, 没有挂载虚拟线程时为0
+    volatile long mountedAt;
+    volatile long busyNanos;
+    /// 超过时间片、需要在下一个检查点让出的那次挂载的开始时间, 由 {@link PreemptionWatchdog} 设置, 0 表示无
+    volatile long preemptAt;
+    final LatencyHistogram runLatency = new LatencyHistogram();
+
+    static final VarHandle RUN_NEXT;
+    static {
+        try {
+            RUN_NEXT = MethodHandles.lookup().findVarHandle(CarrierThread.class, "runNext", SimpleVirtualThread.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    CarrierThread(SimpleVirtualScheduler scheduler, int index, Runnable task) {
+        super(task, "simple-carrier-" + index);
+        this.scheduler = scheduler;
+        this.index = index;
+        // 与 JDK 虚拟线程调度器的载体一样是守护线程. JDK 会暂时切换到载体线程上创建内部线程(例如 Thread.sleep 用到的 VirtualThread-unparker),
+        // 这些线程继承载体的守护状态, 载体不是守护线程时, 运行过 JDK 虚拟线程(见 VirtualThreadBridge)后 JVM 无法退出
+        setDaemon(true);
+    }
+
+    /**
+     * 启动后先绑定 CPU(如果调度器指定了亲和性), 再进入调度循环
+     */
+    @Override
+    public void run() {
+        int cpu = scheduler.carrierCpu(index);
+        if (cpu >= 0) {
+            try {
+                CpuAffinity.pin(cpu);
+                this.cpu = cpu;
+            } catch (RuntimeException e) {
+                // 绑定失败不影响执行, 载体仍由操作系统调度
+                e.printStackTrace();
+            }
+        }
+        super.run();
+    }
+
+    /**
+     * 获取当前的载体线程
+     * @return 当前线程不是载体线程时返回 null
+     */
+    static CarrierThread current() {
+        return Thread.currentThread() instanceof CarrierThread carrier ? carrier : null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+
+/**
+ * 通道 ping-pong 基准: 每对虚拟线程通过两个通道来回传递同一个元素, 统计往返吞吐量与往返延迟分布.
+ *  - simple: {@link SimpleChannel} 在自定义调度器上, 分别使用同步通道和容量为1的有界通道.
+ *  - jdk: {@link SynchronousQueue} 在 JDK 虚拟线程上.
+ * 载体数与 JDK 虚拟线程调度器的并行度一致, 运行参数: [pairs=1] [roundTrips=200000]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 23:40 </p>
+ */
+public class ChannelBenchmark {
+    private static final int CARRIERS = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    /// ping-pong 的一端
+    private interface Endpoint {
+        void send(Integer item) throws InterruptedException;
+
+        Integer receive() throws InterruptedException;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int roundTrips = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (String workload : new String[]{"rendezvous", "bounded", "synchronousQueue"}) {
+                LatencyHistogram latency = new LatencyHistogram();
+                long elapsed = workload.equals("synchronousQueue")
+                        ? runJdk(pairs, roundTrips, latency)
+                        : runSimple(workload, pairs, roundTrips, latency);
+                if (round > 0) {
+                    LatencyHistogram.Distribution d = LatencyHistogram.distribution(latency);
+                    System.out.printf("[%s] %,d round trips, %d ms (%,.0f round trips/s), latency p50: %,d ns, p99: %,d ns, p99.9: %,d ns, max: %,d ns%n",
+                            workload, (long) pairs * roundTrips, elapsed / 1_000_000,
+                            pairs * (double) roundTrips * 1e9 / elapsed, d.p50(), d.p99(), d.p999(), d.max());
+                }
+            }
+        }
+    }
+
+    private static long runSimple(String workload, int pairs, int roundTrips, LatencyHistogram latency) throws InterruptedException {
+        try (var scheduler = new SimpleVirtualScheduler(CARRIERS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            var done = new CountDownLatch(pairs * 2);
+            long start = System.nanoTime();
+            for (int p = 0; p < pairs; p++) {
+                SimpleChannel<Integer> ping = workload.equals("rendezvous") ? SimpleChannel.rendezvous() : SimpleChannel.bounded(1);
+                SimpleChannel<Integer> pong = workload.equals("rendezvous") ? SimpleChannel.rendezvous() : SimpleChannel.bounded(1);
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    pinger(endpoint(ping, pong), roundTrips, latency);
+                    done.countDown();
+                }));
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    ponger(endpoint(pong, ping), roundTrips);
+                    done.countDown();
+                }));
+            }
+            done.await();
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static long runJdk(int pairs, int roundTrips, LatencyHistogram latency) throws InterruptedException {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var done = new CountDownLatch(pairs * 2);
+            long start = System.nanoTime();
+            for (int p = 0; p < pairs; p++) {
+                var ping = new SynchronousQueue<Integer>();
+                var pong = new SynchronousQueue<Integer>();
+                executor.execute(() -> {
+                    pinger(endpoint(ping, pong), roundTrips, latency);
+                    done.countDown();
+                });
+                executor.execute(() -> {
+                    ponger(endpoint(pong, ping), roundTrips);
+                    done.countDown();
+                });
+            }
+            done.await();
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static void pinger(Endpoint endpoint, int roundTrips, LatencyHistogram latency) {
+        Integer ball = 0;
+        try {
+            for (int i = 0; i < roundTrips; i++) {
+                long sent = System.nanoTime();
+                endpoint.send(ball);
+                ball = endpoint.receive();
+                latency.record(System.nanoTime() - sent);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void ponger(Endpoint endpoint, int roundTrips) {
+        try {
+            for (int i = 0; i < roundTrips; i++) {
+                endpoint.send(endpoint.receive());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Endpoint endpoint(SimpleChannel<Integer> out, SimpleChannel<Integer> in) {
+        return new Endpoint() {
+            @Override
+            public void send(Integer item) {
+                out.send(item);
+            }
+
+            @Override
+            public Integer receive() {
+                return in.receive();
+            }
+        };
+    }
+
+    private static Endpoint endpoint(SynchronousQueue<Integer> out, SynchronousQueue<Integer> in) {
+        return new Endpoint() {
+            @Override
+            public void send(Integer item) throws InterruptedException {
+                out.put(item);
+            }
+
+            @Override
+            public Integer receive() throws InterruptedException {
+                return in.take();
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.zero.virtualThread.simple;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 载体补偿示例: 部分虚拟线程在载体上执行真正阻塞的操作(Thread.sleep), 占满所有载体,
+ * {@link CarrierPool} 检测到后临时增加载体, 其余虚拟线程得以继续执行, 阻塞结束后补偿载体逐渐退出.
+ * 通过 -Dsimple.blockedThresholdMillis 调整判定阻塞的阈值.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 21:30 </p>
+ */
+public class CompensationExample {
+    private static final int THREADS = 2;
+
+    public static void main(String[] args) throws InterruptedException {
+        try (var scheduler = new SimpleVirtualScheduler(THREADS)) {
+            new Thread(scheduler).start();
+            while (!tryStart(scheduler)) {
+                Thread.onSpinWait();
+            }
+            // 阻塞所有载体1秒
+            for (int i = 0; i < THREADS; i++) {
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            var done = new CountDownLatch(1000);
+            long start = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    WaitingOperate.preform("sleep", Duration.ofMillis(10), scheduler);
+                    done.countDown();
+                }));
+            }
+            done.await();
+            var metrics = scheduler.metrics().snapshot();
+            System.out.printf("1000 tasks finished in %d ms while %d carriers were blocked, carriers: %d, compensations: %d%n",
+                    (System.nanoTime() - start) / 1_000_000, THREADS, metrics.carriers(), metrics.compensations());
+            Thread.sleep(1500);
+            System.out.printf("after blocking ends, carriers: %d, blocked: %d%n",
+                    scheduler.metrics().snapshot().carriers(), scheduler.metrics().snapshot().blockedCarriers());
+        }
+    }
+
+    /// 调度器在 run() 中才会进入运行状态, 这里通过提交一个空任务来探测
+    private static boolean tryStart(SimpleVirtualScheduler scheduler) {
+        try {
+            scheduler.schedule(new SimpleVirtualThread(() -> {}));
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
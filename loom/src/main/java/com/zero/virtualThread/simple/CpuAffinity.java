@@ -0,0 +1,75 @@
+package com.zero.virtualThread.simple;
+
+import com.zero.panama.generate.linux.cpu_set_t;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+import static com.zero.panama.generate.linux.sched_h.CPU_SETSIZE;
+import static com.zero.panama.generate.linux.sched_h.sched_getaffinity;
+import static com.zero.panama.generate.linux.sched_h.sched_getcpu;
+import static com.zero.panama.generate.linux.sched_h.sched_setaffinity;
+
+/**
+ * 载体线程的 CPU 亲和性, 通过 jextract 生成的 glibc sched.h 绑定({@code com.zero.panama.generate.linux.sched_h})调用 sched_setaffinity.
+ *  - pid 传0表示调用线程本身, 因此只能由要绑定的线程自己调用 {@link #pin}.
+ *  - cpu_set_t 按 glibc 的默认大小(1024个CPU)在调用期间的 Arena 中分配.
+ * 运行参数 --enable-native-access=ALL-UNNAMED, 仅支持 Linux.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 02:30 </p>
+ */
+final class CpuAffinity {
+    private static final int BITS_PER_WORD = Long.SIZE;
+
+    private CpuAffinity() {
+    }
+
+    static boolean isSupported() {
+        return System.getProperty("os.name").startsWith("Linux");
+    }
+
+    /**
+     * 将当前线程绑定到一个 CPU
+     */
+    static void pin(int cpu) {
+        if (cpu < 0 || cpu >= CPU_SETSIZE()) {
+            throw new IllegalArgumentException("cpu: " + cpu);
+        }
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment set = cpu_set_t.allocate(arena);
+            cpu_set_t.__bits(set, cpu / BITS_PER_WORD, 1L << (cpu % BITS_PER_WORD));
+            if (sched_setaffinity(0, cpu_set_t.sizeof(), set) != 0) {
+                throw new IllegalStateException("sched_setaffinity failed, cpu: " + cpu);
+            }
+        }
+    }
+
+    /**
+     * 当前线程允许运行的 CPU, 升序
+     */
+    static int[] allowedCpus() {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment set = cpu_set_t.allocate(arena);
+            if (sched_getaffinity(0, cpu_set_t.sizeof(), set) != 0) {
+                throw new IllegalStateException("sched_getaffinity failed");
+            }
+            int[] cpus = new int[CPU_SETSIZE()];
+            int n = 0;
+            for (int cpu = 0; cpu < CPU_SETSIZE(); cpu++) {
+                if ((cpu_set_t.__bits(set, cpu / BITS_PER_WORD) & 1L << (cpu % BITS_PER_WORD)) != 0) {
+                    cpus[n++] = cpu;
+                }
+            }
+            return Arrays.copyOf(cpus, n);
+        }
+    }
+
+    /**
+     * 当前线程正在运行的 CPU
+     */
+    static int currentCpu() {
+        return sched_getcpu();
+    }
+}
@@ -0,0 +1,185 @@
+package com.zero.virtualThread.simple;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 最早截止时间优先(EDF)的运行队列, 让交互式请求不被批处理任务拖慢.
+ *  - 虚拟线程可以通过 {@link SimpleVirtualThread#setPriority} 指定优先级, 每次入队时的截止时间 = 入队时间 + 该优先级的宽限期;
+ *    也可以通过 {@link SimpleVirtualThread#setDeadline} 指定绝对截止时间, 两者都指定时取较早的一个. 都没有指定时按 {@link Priority#NORMAL} 处理.
+ *  - 每个优先级一个按截止时间排序的无锁跳表 {@link ConcurrentSkipListMap}, 截止时间相同时按入队顺序, 入队/出队为 O(log n).
+ *  - 出队时在各优先级的队首中选择尚未超时、截止时间最早的任务. 已经超时的任务不再优先于按时的任务,
+ *    避免过载时积压的超时任务把之后到达的所有请求都拖成超时; 队首都已超时时按优先级从高到低选择.
+ *  - 防饥饿: 每 {@value #STARVATION_INTERVAL} 次出队中有一次优先选择排队超过 starvationThreshold 的最老的任务,
+ *    因此持续不断的交互式请求也不能让批处理任务完全停下来.
+ *  - 记录每个优先级的排队延迟, 以及出队时已经错过截止时间的次数.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 01:00 </p>
+ */
+public class DeadlineRunQueue implements RunQueue {
+    /// 默认的饥饿判定时长
+    private static final Duration DEFAULT_STARVATION_THRESHOLD = Duration.ofMillis(200);
+    /// 每隔多少次出队检查一次饥饿的任务
+    private static final int STARVATION_INTERVAL = 4;
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /// 每个优先级的队列, 按截止时间排序
+    @SuppressWarnings("unchecked")
+    private final ConcurrentSkipListMap<Key, SimpleVirtualThread>[] queues = new ConcurrentSkipListMap[PRIORITIES.length];
+    /// 入队序号, 截止时间相同时保证先进先出
+    private final AtomicLong sequence = new AtomicLong();
+    /// ConcurrentSkipListMap 的 size() 需要遍历, 单独计数
+    private final AtomicInteger size = new AtomicInteger();
+    /// 出队次数, 用于决定本次出队是否检查饥饿的任务
+    private final AtomicLong polls = new AtomicLong();
+    private final long starvationNanos;
+
+    /// 指标: 每个优先级的排队延迟, 以及出队时已经错过截止时间的次数
+    private final LatencyHistogram[] latency = new LatencyHistogram[PRIORITIES.length];
+    private final LongAdder missed = new LongAdder();
+
+    public DeadlineRunQueue() {
+        this(DEFAULT_STARVATION_THRESHOLD);
+    }
+
+    public DeadlineRunQueue(Duration starvationThreshold) {
+        this.starvationNanos = starvationThreshold.toNanos();
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            queues[i] = new ConcurrentSkipListMap<>();
+            latency[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * 优先级, 按从高到低排列, 对应入队后允许等待的时长
+     */
+    public enum Priority {
+        /// 交互式请求
+        INTERACTIVE(Duration.ofMillis(1)),
+        NORMAL(Duration.ofMillis(20)),
+        /// 批处理任务
+        BATCH(Duration.ofMillis(100));
+
+        private final long slackNanos;
+
+        Priority(Duration slack) {
+            this.slackNanos = slack.toNanos();
+        }
+    }
+
+    /**
+     * 队列中的排序键
+     * @param deadline 截止时间
+     * @param seq 入队序号
+     */
+    private record Key(long deadline, long seq) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key o) {
+            // nanoTime 可能为负数, 比较差值而不是直接比较大小
+            long diff = deadline - o.deadline;
+            return diff != 0 ? (diff < 0 ? -1 : 1) : Long.compare(seq, o.seq);
+        }
+    }
+
+    @Override
+    public void offer(SimpleVirtualThread task) {
+        Priority priority = priorityOf(task);
+        long deadline = task.scheduledAt + priority.slackNanos;
+        long explicit = task.deadline;
+        if (explicit != 0 && explicit - deadline < 0) {
+            deadline = explicit;
+        }
+        queues[priority.ordinal()].put(new Key(deadline, sequence.getAndIncrement()), task);
+        size.incrementAndGet();
+    }
+
+    @Override
+    public SimpleVirtualThread poll() {
+        long now = System.nanoTime();
+        boolean checkStarving = polls.getAndIncrement() % STARVATION_INTERVAL == 0;
+        while (size.get() > 0) {
+            int chosen = choose(now, checkStarving);
+            if (chosen < 0) {
+                return null;
+            }
+            Map.Entry<Key, SimpleVirtualThread> entry = queues[chosen].pollFirstEntry();
+            if (entry == null) {
+                // 队首已被其他载体取走, 重新选择
+                continue;
+            }
+            size.decrementAndGet();
+            SimpleVirtualThread task = entry.getValue();
+            latency[chosen].record(now - task.scheduledAt);
+            if (now - entry.getKey().deadline > 0) {
+                missed.increment();
+            }
+            return task;
+        }
+        return null;
+    }
+
+    /**
+     * 在各优先级的队首中选择本次出队的队列
+     * @return 所有队列都为空时返回 -1
+     */
+    private int choose(long now, boolean checkStarving) {
+        int onTime = -1;
+        long onTimeDeadline = 0;
+        int highest = -1;
+        int oldest = -1;
+        long oldestArrival = 0;
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            Map.Entry<Key, SimpleVirtualThread> head = queues[i].firstEntry();
+            if (head == null) {
+                continue;
+            }
+            if (highest < 0) {
+                highest = i;
+            }
+            long deadline = head.getKey().deadline;
+            if (deadline - now >= 0 && (onTime < 0 || deadline - onTimeDeadline < 0)) {
+                onTime = i;
+                onTimeDeadline = deadline;
+            }
+            long arrival = head.getValue().scheduledAt;
+            if (checkStarving && now - arrival > starvationNanos && (oldest < 0 || arrival - oldestArrival < 0)) {
+                oldest = i;
+                oldestArrival = arrival;
+            }
+        }
+        if (oldest >= 0) {
+            return oldest;
+        }
+        return onTime >= 0 ? onTime : highest;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /// 某个优先级从入队到出队的延迟分布(纳秒)
+    public LatencyHistogram.Distribution latency(Priority priority) {
+        return LatencyHistogram.distribution(latency[priority.ordinal()]);
+    }
+
+    /// 出队时已经错过截止时间的次数
+    public long missedDeadlines() {
+        return missed.sum();
+    }
+
+    private static Priority priorityOf(SimpleVirtualThread task) {
+        Priority priority = task.priority;
+        return priority != null ? priority : Priority.NORMAL;
+    }
+}
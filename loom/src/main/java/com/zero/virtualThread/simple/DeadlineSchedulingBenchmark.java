@@ -0,0 +1,91 @@
+package com.zero.virtualThread.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 截止时间调度基准: 批处理任务与交互式请求共用一个调度器, 对比 FIFO 运行队列与 {@link DeadlineRunQueue} 下
+ * 交互式请求从提交到完成的延迟, 以及批处理任务的总耗时.
+ *  - 批处理任务一次性提交, 优先级为 BATCH; 交互式请求按固定间隔提交, 优先级为 INTERACTIVE.
+ *  - 每个任务忙等 [work=50] 微秒, 模拟一次挂载的计算量.
+ * 运行参数: [carriers=2] [batchTasks=20000] [work=50]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 01:15 </p>
+ */
+public class DeadlineSchedulingBenchmark {
+    /// 交互式请求的提交间隔
+    private static final long INTERACTIVE_INTERVAL_NANOS = 2_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int carriers = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int batchTasks = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        long workNanos = (args.length > 2 ? Long.parseLong(args[2]) : 50) * 1000;
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (boolean edf : new boolean[]{false, true}) {
+                run(edf, carriers, batchTasks, workNanos, round > 0);
+            }
+        }
+    }
+
+    private static void run(boolean edf, int carriers, int batchTasks, long workNanos, boolean report) throws InterruptedException {
+        RunQueue runQueue = edf ? new DeadlineRunQueue() : new FifoRunQueue();
+        LatencyHistogram interactiveLatency = new LatencyHistogram();
+        long start;
+        long elapsed;
+        int requests;
+        try (var scheduler = new SimpleVirtualScheduler(carriers, runQueue)) {
+            scheduler.run();
+            var done = new CountDownLatch(batchTasks);
+            start = System.nanoTime();
+            for (int i = 0; i < batchTasks; i++) {
+                var vt = new SimpleVirtualThread(() -> {
+                    spin(workNanos);
+                    done.countDown();
+                });
+                vt.setPriority(DeadlineRunQueue.Priority.BATCH);
+                scheduler.schedule(vt);
+            }
+            List<SimpleVirtualThread> interactive = new ArrayList<>();
+            while (done.getCount() > 0) {
+                long submitted = System.nanoTime();
+                var vt = new SimpleVirtualThread(() -> {
+                    spin(workNanos);
+                    interactiveLatency.record(System.nanoTime() - submitted);
+                });
+                vt.setPriority(DeadlineRunQueue.Priority.INTERACTIVE);
+                interactive.add(scheduler.schedule(vt));
+                LockSupport.parkNanos(INTERACTIVE_INTERVAL_NANOS);
+            }
+            done.await();
+            elapsed = System.nanoTime() - start;
+            // FIFO 下交互式请求排在批处理任务之后, 等它们全部完成再统计
+            interactive.forEach(SimpleVirtualThread::join);
+            requests = interactive.size();
+        }
+        if (report) {
+            LatencyHistogram.Distribution d = LatencyHistogram.distribution(interactiveLatency);
+            System.out.printf("[%s] batch: %,d tasks in %d ms, interactive: %d requests, latency p50: %,d us, p99: %,d us, max: %,d us%n",
+                    edf ? "edf" : "fifo", batchTasks, elapsed / 1_000_000, requests, d.p50() / 1000, d.p99() / 1000, d.max() / 1000);
+            if (runQueue instanceof DeadlineRunQueue queue) {
+                for (DeadlineRunQueue.Priority priority : DeadlineRunQueue.Priority.values()) {
+                    LatencyHistogram.Distribution q = queue.latency(priority);
+                    System.out.printf("    %s: dispatched %,d, queue wait p50: %,d us, p99: %,d us%n",
+                            priority, q.count(), q.p50() / 1000, q.p99() / 1000);
+                }
+                System.out.printf("    missed deadlines: %,d%n", queue.missedDeadlines());
+            }
+        }
+    }
+
+    /// 忙等模拟计算
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 对比 {@link SimpleVirtualScheduler.DispatchMode} 中 SPIN 和 PARK 两种调度循环:
+ *  - 空闲CPU: 没有任何任务时，调度线程在1秒内消耗的CPU时间占比.
+ *  - 唤醒延迟: 从调用 schedule 到虚拟线程真正开始执行的耗时.
+ * WORK_STEALING 模式没有调度线程, run() 启动载体后立即返回, 不参与对比.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 10:12 </p>
+ */
+public class DispatchBenchmark {
+    /// 每种模式测量的唤醒次数
+    private static final int ROUNDS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (SimpleVirtualScheduler.DispatchMode mode : new SimpleVirtualScheduler.DispatchMode[]{
+                SimpleVirtualScheduler.DispatchMode.SPIN, SimpleVirtualScheduler.DispatchMode.PARK}) {
+            bench(mode);
+        }
+    }
+
+    private static void bench(SimpleVirtualScheduler.DispatchMode mode) throws InterruptedException {
+        ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+        try (var scheduler = new SimpleVirtualScheduler(4, mode)) {
+            Thread dispatcher = new Thread(scheduler, "dispatcher-" + mode);
+            dispatcher.start();
+            TimeUnit.MILLISECONDS.sleep(100);
+
+            // 空闲CPU
+            long cpuStart = mxBean.getThreadCpuTime(dispatcher.threadId());
+            long wallStart = System.nanoTime();
+            TimeUnit.SECONDS.sleep(1);
+            long cpu = mxBean.getThreadCpuTime(dispatcher.threadId()) - cpuStart;
+            long wall = System.nanoTime() - wallStart;
+
+            // 唤醒延迟: 每轮之间间隔一段时间，让调度线程有机会进入空闲状态
+            long[] latencies = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                int n = i;
+                var done = new CountDownLatch(1);
+                long start = System.nanoTime();
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    latencies[n] = System.nanoTime() - start;
+                    done.countDown();
+                }));
+                done.await();
+                LockSupport.parkNanos(200_000);
+            }
+            Arrays.sort(latencies);
+            System.out.printf("[%s] idle cpu: %.1f%%, wake-up latency p50: %d us, p99: %d us, max: %d us%n",
+                    mode, cpu * 100.0 / wall,
+                    latencies[ROUNDS / 2] / 1000, latencies[ROUNDS * 99 / 100] / 1000, latencies[ROUNDS - 1] / 1000);
+        }
+    }
+}
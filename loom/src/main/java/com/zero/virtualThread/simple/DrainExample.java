@@ -0,0 +1,54 @@
+package com.zero.virtualThread.simple;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 优雅关闭示例: 模拟滚动重启时仍有请求在处理.
+ *  - 100个短请求(定时等待50ms, 期间派生一个子任务), 关闭开始后仍能全部完成.
+ *  - 10个长请求(定时等待10s), 超过关闭时限后被取消, 在 CancellationException 中收尾.
+ *  - 1个阻塞在通道上的请求, 无法被取消, 最终作为未结束的任务报告出来.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 23:55 </p>
+ */
+public class DrainExample {
+
+    public static void main(String[] args) {
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger cancelled = new AtomicInteger();
+        try (var scheduler = new SimpleVirtualScheduler(4, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            for (int i = 0; i < 100; i++) {
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    WaitingOperate.preform("short", Duration.ofMillis(50), scheduler);
+                    // 关闭期间由正在处理的请求派生的子任务仍然可以提交
+                    scheduler.schedule(new SimpleVirtualThread(completed::incrementAndGet)).join();
+                }));
+            }
+            for (int i = 0; i < 10; i++) {
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    try {
+                        WaitingOperate.preform("long", Duration.ofSeconds(10), scheduler);
+                    } catch (CancellationException e) {
+                        cancelled.incrementAndGet();
+                    }
+                }));
+            }
+            SimpleChannel<String> never = SimpleChannel.rendezvous();
+            scheduler.schedule(new SimpleVirtualThread(never::receive));
+
+            long start = System.nanoTime();
+            long unfinished = scheduler.shutdownGracefully(Duration.ofMillis(500));
+            try {
+                scheduler.schedule(new SimpleVirtualThread(() -> {}));
+            } catch (RejectedExecutionException e) {
+                System.out.println("rejected: " + e.getMessage());
+            }
+            System.out.printf("drained in %d ms, completed: %d, cancelled: %d, unfinished: %d%n",
+                    (System.nanoTime() - start) / 1_000_000, completed.get(), cancelled.get(), unfinished);
+        }
+    }
+}
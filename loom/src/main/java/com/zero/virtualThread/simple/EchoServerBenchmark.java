@@ -0,0 +1,123 @@
+package com.zero.virtualThread.simple;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 回环地址上的 echo 服务压测: 每个连接一个 {@link SimpleVirtualThread}, 服务端与客户端运行在同一个调度器上.
+ *  - 参数: [连接数, 默认 50000] [每个连接的往返次数, 默认 10]
+ *  - 服务端和客户端各占用一个文件描述符, 需要 ulimit -n 大于连接数的两倍.
+ *  - 客户端轮流绑定 127.0.0.2 ~ 127.0.0.9, 避免单个源地址的临时端口不够用.
+ *  - 通过 -Dsimple.poller=selector|epoll|epoll-et 对比不同的 {@link Poller} 实现.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 15:20 </p>
+ */
+public class EchoServerBenchmark {
+    private static final int MESSAGE_SIZE = 64;
+    private static final int SOURCE_ADDRESSES = 8;
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        try (var scheduler = new SimpleVirtualScheduler(Runtime.getRuntime().availableProcessors(),
+                SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            var server = SimpleServerSocket.bind(new InetSocketAddress("127.0.0.1", 0), connections);
+            var address = (InetSocketAddress) server.localAddress();
+
+            // 服务端: 每接受一个连接就创建一个虚拟线程处理
+            scheduler.schedule(new SimpleVirtualThread(() -> {
+                try {
+                    while (true) {
+                        SimpleSocket socket = server.accept();
+                        scheduler.schedule(new SimpleVirtualThread(() -> echo(socket)));
+                    }
+                } catch (IOException e) {
+                    // 服务端关闭
+                }
+            }));
+
+            // 客户端: 建立全部连接后再开始收发, 分别统计建连耗时和往返延迟
+            long[] latencies = new long[connections * rounds];
+            var connected = new CountDownLatch(connections);
+            var start = new CountDownLatch(1);
+            var done = new CountDownLatch(connections);
+            var failures = new AtomicInteger();
+            long connectStart = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                int n = i;
+                var local = new InetSocketAddress("127.0.0." + (2 + n % SOURCE_ADDRESSES), 0);
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    try (SimpleSocket socket = SimpleSocket.connect(local, address)) {
+                        connected.countDown();
+                        // 等待所有连接建立完成
+                        while (start.getCount() > 0) {
+                            scheduler.timer().sleep(Duration.ofMillis(10));
+                        }
+                        ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_SIZE);
+                        for (int r = 0; r < rounds; r++) {
+                            long begin = System.nanoTime();
+                            buffer.clear();
+                            socket.write(buffer);
+                            buffer.clear();
+                            while (buffer.hasRemaining()) {
+                                if (socket.read(buffer) < 0) {
+                                    throw new IOException("connection closed");
+                                }
+                            }
+                            latencies[n * rounds + r] = System.nanoTime() - begin;
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                        connected.countDown();
+                    } finally {
+                        done.countDown();
+                    }
+                }));
+                // 分批发起连接, 避免瞬间打满 backlog
+                if (n % 1000 == 999) {
+                    TimeUnit.MILLISECONDS.sleep(5);
+                }
+            }
+            connected.await();
+            long connectElapsed = System.nanoTime() - connectStart;
+            long echoStart = System.nanoTime();
+            start.countDown();
+            done.await();
+            long echoElapsed = System.nanoTime() - echoStart;
+            server.close();
+
+            Arrays.sort(latencies);
+            int samples = latencies.length;
+            System.out.printf("connections: %,d (failed %d), connect: %d ms%n", connections, failures.get(), connectElapsed / 1_000_000);
+            System.out.printf("round trips: %,d in %d ms, %,.0f msg/s, p50: %d us, p99: %d us, max: %d us%n",
+                    samples, echoElapsed / 1_000_000, samples * 1e9 / echoElapsed,
+                    latencies[samples / 2] / 1000, latencies[samples * 99 / 100] / 1000, latencies[samples - 1] / 1000);
+            var metrics = scheduler.metrics().snapshot();
+            System.out.printf("scheduler: %,d dispatches, %,d parks, schedule-to-run p50: %d us, p99: %d us, p999: %d us%n",
+                    metrics.dispatched(), metrics.parks(), metrics.scheduleToRun().p50() / 1000,
+                    metrics.scheduleToRun().p99() / 1000, metrics.scheduleToRun().p999() / 1000);
+        }
+    }
+
+    private static void echo(SimpleSocket socket) {
+        try (socket) {
+            ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_SIZE);
+            while (socket.read(buffer) >= 0) {
+                buffer.flip();
+                socket.write(buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            // 客户端断开
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.zero.virtualThread.simple;
+
+import sun.nio.ch.SelChImpl;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+import static java.lang.foreign.MemoryLayout.PathElement.sequenceElement;
+
+/**
+ * 通过 Panama 直接调用 Linux epoll 的 IO 轮询器, 由 {@link SimpleVirtualScheduler} 持有.
+ *  - 与 SysCallExample1 一样, 通过 {@link Linker} 查找 epoll_create1/epoll_ctl/epoll_wait 并创建函数句柄.
+ *  - epoll_wait 使用的 epoll_event 数组在堆外分配一次，之后每轮轮询复用, 轮询循环本身不产生垃圾.
+ *  - 默认水平触发 + EPOLLONESHOT: 每次等待都由虚拟线程自己调用 epoll_ctl 重新武装, 不需要唤醒轮询线程.
+ *  - 边缘触发模式下每个fd只登记一次(EPOLLIN|EPOLLOUT|EPOLLET), 就绪状态记录在 {@link FdState} 中, 等待时不再需要系统调用.
+ *  - 同一轮 epoll_wait 返回的就绪虚拟线程批量交还给调度器.
+ * 运行参数 --enable-native-access=ALL-UNNAMED --add-exports java.base/sun.nio.ch=ALL-UNNAMED
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 16:20 </p>
+ */
+public class EpollPoller implements Poller {
+    private static final int EPOLL_CLOEXEC = 0x80000;
+    private static final int EPOLL_CTL_ADD = 1;
+    private static final int EPOLL_CTL_MOD = 3;
+    private static final int EPOLLIN = 0x001;
+    private static final int EPOLLOUT = 0x004;
+    private static final int EPOLLERR = 0x008;
+    private static final int EPOLLHUP = 0x010;
+    private static final int EPOLLRDHUP = 0x2000;
+    private static final int EPOLLONESHOT = 1 << 30;
+    private static final int EPOLLET = 1 << 31;
+    private static final int EFD_NONBLOCK = 0x800;
+    private static final int EFD_CLOEXEC = 0x80000;
+    private static final int ENOENT = 2;
+    private static final int EINTR = 4;
+    private static final int EEXIST = 17;
+    /// 唤醒用 eventfd 在 epoll_event.data 中的标识
+    private static final long WAKEUP_TOKEN = -1L;
+    /// 单次 epoll_wait 最多返回的事件数
+    private static final int MAX_EVENTS = 1024;
+
+    /**
+     * struct epoll_event { uint32_t events; epoll_data_t data; }
+     * x86_64 上该结构体是 packed 的(12字节)，其他架构按8字节对齐(16字节).
+     */
+    static final StructLayout EPOLL_EVENT = "amd64".equals(System.getProperty("os.arch"))
+            ? MemoryLayout.structLayout(
+                    ValueLayout.JAVA_INT.withName("events"),
+                    ValueLayout.JAVA_LONG.withByteAlignment(4).withName("data"))
+            : MemoryLayout.structLayout(
+                    ValueLayout.JAVA_INT.withName("events"),
+                    MemoryLayout.paddingLayout(4),
+                    ValueLayout.JAVA_LONG.withName("data"));
+    private static final MemoryLayout EVENT_ARRAY = MemoryLayout.sequenceLayout(MAX_EVENTS, EPOLL_EVENT);
+    private static final VarHandle EVENTS = EVENT_ARRAY.varHandle(sequenceElement(), groupElement("events"));
+    private static final VarHandle DATA = EVENT_ARRAY.varHandle(sequenceElement(), groupElement("data"));
+    private static final VarHandle EVENT_EVENTS = EPOLL_EVENT.varHandle(groupElement("events"));
+    private static final VarHandle EVENT_DATA = EPOLL_EVENT.varHandle(groupElement("data"));
+
+    private static final StructLayout CAPTURE_STATE = Linker.Option.captureStateLayout();
+    private static final VarHandle ERRNO = CAPTURE_STATE.varHandle(groupElement("errno"));
+
+    private static final MethodHandle EPOLL_CREATE1;
+    private static final MethodHandle EPOLL_CTL;
+    private static final MethodHandle EPOLL_WAIT;
+    private static final MethodHandle EVENTFD;
+    private static final MethodHandle READ;
+    private static final MethodHandle WRITE;
+    private static final MethodHandle CLOSE;
+    static {
+        Linker linker = Linker.nativeLinker();
+        SymbolLookup lookup = linker.defaultLookup();
+        Linker.Option errno = Linker.Option.captureCallState("errno");
+        // int epoll_create1(int flags)
+        EPOLL_CREATE1 = linker.downcallHandle(lookup.findOrThrow("epoll_create1"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT));
+        // int epoll_ctl(int epfd, int op, int fd, struct epoll_event *event)
+        EPOLL_CTL = linker.downcallHandle(lookup.findOrThrow("epoll_ctl"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.ADDRESS),
+                errno);
+        // int epoll_wait(int epfd, struct epoll_event *events, int maxevents, int timeout)
+        EPOLL_WAIT = linker.downcallHandle(lookup.findOrThrow("epoll_wait"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT),
+                errno);
+        // int eventfd(unsigned int initval, int flags)
+        EVENTFD = linker.downcallHandle(lookup.findOrThrow("eventfd"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT));
+        // ssize_t read(int fd, void *buf, size_t count)
+        READ = linker.downcallHandle(lookup.findOrThrow("read"),
+                FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG));
+        // ssize_t write(int fd, const void *buf, size_t count)
+        WRITE = linker.downcallHandle(lookup.findOrThrow("write"),
+                FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG));
+        // int close(int fd)
+        CLOSE = linker.downcallHandle(lookup.findOrThrow("close"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT));
+    }
+
+    private final SimpleVirtualScheduler scheduler;
+    private final boolean edgeTriggered;
+    private final Arena arena = Arena.ofShared();
+    private final int epfd;
+    private final int wakeupFd;
+    /// 轮询线程专用: 复用的事件数组、errno 和 eventfd 读缓冲区
+    private final MemorySegment events;
+    private final MemorySegment pollErrno;
+    private final MemorySegment wakeupBuffer;
+    /// 按fd索引的登记状态, 只增不减
+    private volatile FdState[] states = new FdState[1024];
+    /// 本轮就绪、需要重新调度的虚拟线程
+    private final List<SimpleVirtualThread> ready = new ArrayList<>();
+    private final Thread poller;
+    private volatile boolean running = true;
+
+    public EpollPoller(SimpleVirtualScheduler scheduler, boolean edgeTriggered) {
+        this.scheduler = scheduler;
+        this.edgeTriggered = edgeTriggered;
+        events = arena.allocate(EVENT_ARRAY);
+        pollErrno = arena.allocate(CAPTURE_STATE);
+        wakeupBuffer = arena.allocate(ValueLayout.JAVA_LONG);
+        try {
+            epfd = (int) EPOLL_CREATE1.invokeExact(EPOLL_CLOEXEC);
+            wakeupFd = (int) EVENTFD.invokeExact(0, EFD_NONBLOCK | EFD_CLOEXEC);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        if (epfd < 0 || wakeupFd < 0) {
+            throw new IllegalStateException("failed to create epoll instance");
+        }
+        MemorySegment event = arena.allocate(EPOLL_EVENT);
+        ctl(EPOLL_CTL_ADD, wakeupFd, EPOLLIN, WAKEUP_TOKEN, event, arena.allocate(CAPTURE_STATE));
+        poller = new Thread(this::runPoller, "simple-epoll-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public void await(SelectableChannel channel, int ops) {
+        SimpleVirtualThread vt = SimpleVirtualThread.current();
+        if (vt == null) {
+            throw new IllegalStateException("not in a SimpleVirtualThread");
+        }
+        int fd = ((SelChImpl) channel).getFDVal();
+        FdState state = state(fd);
+        boolean read = (ops & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0;
+        if (edgeTriggered) {
+            synchronized (state) {
+                // fd 被关闭后可能被新的通道复用, 此时需要重新登记
+                if (state.channel != channel) {
+                    state.channel = channel;
+                    state.readReady = state.writeReady = false;
+                    ctl(EPOLL_CTL_ADD, fd, EPOLLIN | EPOLLOUT | EPOLLRDHUP | EPOLLET, fd, state.event, state.errno);
+                }
+            }
+            if (read) {
+                FdState.READER.setVolatile(state, vt);
+                if ((boolean) FdState.READ_READY.getAndSet(state, false)) {
+                    FdState.READER.compareAndSet(state, vt, null);
+                    return;
+                }
+            } else {
+                FdState.WRITER.setVolatile(state, vt);
+                if ((boolean) FdState.WRITE_READY.getAndSet(state, false)) {
+                    FdState.WRITER.compareAndSet(state, vt, null);
+                    return;
+                }
+            }
+        } else {
+            synchronized (state) {
+                state.channel = channel;
+                if (read) {
+                    state.reader = vt;
+                } else {
+                    state.writer = vt;
+                }
+                arm(fd, state);
+            }
+        }
+        SimpleVirtualThread.park();
+    }
+
+    /**
+     * 水平触发模式下, 按照当前的等待者重新武装 EPOLLONESHOT 事件. 调用方需持有 state 的锁.
+     */
+    private void arm(int fd, FdState state) {
+        int interest = (state.reader != null ? EPOLLIN | EPOLLRDHUP : 0) | (state.writer != null ? EPOLLOUT : 0);
+        if (interest != 0) {
+            ctl(EPOLL_CTL_MOD, fd, interest | EPOLLONESHOT, fd, state.event, state.errno);
+        }
+    }
+
+    private void runPoller() {
+        while (running) {
+            int n;
+            try {
+                n = (int) EPOLL_WAIT.invokeExact(pollErrno, epfd, events, MAX_EVENTS, -1);
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+            if (n < 0) {
+                if ((int) ERRNO.get(pollErrno, 0L) == EINTR) {
+                    continue;
+                }
+                throw new IllegalStateException("epoll_wait failed, errno: " + (int) ERRNO.get(pollErrno, 0L));
+            }
+            FdState[] states = this.states;
+            for (int i = 0; i < n; i++) {
+                int ev = (int) EVENTS.get(events, 0L, (long) i);
+                long data = (long) DATA.get(events, 0L, (long) i);
+                if (data == WAKEUP_TOKEN) {
+                    drainWakeup();
+                } else {
+                    fire((int) data, states[(int) data], ev);
+                }
+            }
+            if (!ready.isEmpty()) {
+                scheduler.schedule(ready);
+                ready.clear();
+            }
+        }
+        closeFd(epfd);
+        closeFd(wakeupFd);
+        arena.close();
+    }
+
+    /**
+     * 唤醒就绪事件上等待的虚拟线程
+     */
+    private void fire(int fd, FdState state, int ev) {
+        boolean failed = (ev & (EPOLLERR | EPOLLHUP)) != 0;
+        boolean readable = failed || (ev & (EPOLLIN | EPOLLRDHUP)) != 0;
+        boolean writable = failed || (ev & EPOLLOUT) != 0;
+        if (edgeTriggered) {
+            if (readable) {
+                FdState.READ_READY.setVolatile(state, true);
+                wake((SimpleVirtualThread) FdState.READER.getAndSet(state, null));
+            }
+            if (writable) {
+                FdState.WRITE_READY.setVolatile(state, true);
+                wake((SimpleVirtualThread) FdState.WRITER.getAndSet(state, null));
+            }
+            return;
+        }
+        synchronized (state) {
+            if (readable) {
+                wake(state.reader);
+                state.reader = null;
+            }
+            if (writable) {
+                wake(state.writer);
+                state.writer = null;
+            }
+            // ONESHOT 事件触发后整个fd都被禁用, 另一方向仍有等待者时需要重新武装
+            arm(fd, state);
+        }
+    }
+
+    private void wake(SimpleVirtualThread thread) {
+        if (thread != null && thread.makeRunnable()) {
+            ready.add(thread);
+        }
+    }
+
+    private void drainWakeup() {
+        try {
+            long ignored = (long) READ.invokeExact(wakeupFd, wakeupBuffer, 8L);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void closeFd(int fd) {
+        try {
+            int rc = (int) CLOSE.invokeExact(fd);
+        } catch (Throwable ignored) {
+        }
+    }
+
+    /**
+     * 调用 epoll_ctl; ADD 时fd已存在则改为 MOD, MOD 时fd不存在则改为 ADD
+     */
+    private void ctl(int op, int fd, int interest, long data, MemorySegment event, MemorySegment errno) {
+        EVENT_EVENTS.set(event, 0L, interest);
+        EVENT_DATA.set(event, 0L, data);
+        try {
+            int rc = (int) EPOLL_CTL.invokeExact(errno, epfd, op, fd, event);
+            if (rc < 0) {
+                int err = (int) ERRNO.get(errno, 0L);
+                if (op == EPOLL_CTL_ADD && err == EEXIST) {
+                    rc = (int) EPOLL_CTL.invokeExact(errno, epfd, EPOLL_CTL_MOD, fd, event);
+                } else if (op == EPOLL_CTL_MOD && err == ENOENT) {
+                    rc = (int) EPOLL_CTL.invokeExact(errno, epfd, EPOLL_CTL_ADD, fd, event);
+                }
+            }
+            if (rc < 0) {
+                throw new IllegalStateException("epoll_ctl failed, fd: " + fd + ", errno: " + (int) ERRNO.get(errno, 0L));
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 获取fd对应的登记状态, 不存在则创建
+     */
+    private FdState state(int fd) {
+        FdState[] states = this.states;
+        if (fd < states.length && states[fd] != null) {
+            return states[fd];
+        }
+        synchronized (this) {
+            states = this.states;
+            if (fd >= states.length) {
+                states = Arrays.copyOf(states, Math.max(fd + 1, states.length * 2));
+            }
+            if (states[fd] == null) {
+                states[fd] = new FdState(arena.allocate(EPOLL_EVENT), arena.allocate(CAPTURE_STATE));
+            }
+            this.states = states;
+            return states[fd];
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        MemorySegment one = Arena.ofAuto().allocateFrom(ValueLayout.JAVA_LONG, 1L);
+        try {
+            long ignored = (long) WRITE.invokeExact(wakeupFd, one, 8L);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 单个fd的登记状态
+     */
+    private static final class FdState {
+        static final VarHandle READER;
+        static final VarHandle WRITER;
+        static final VarHandle READ_READY;
+        static final VarHandle WRITE_READY;
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                READER = lookup.findVarHandle(FdState.class, "reader", SimpleVirtualThread.class);
+                WRITER = lookup.findVarHandle(FdState.class, "writer", SimpleVirtualThread.class);
+                READ_READY = lookup.findVarHandle(FdState.class, "readReady", boolean.class);
+                WRITE_READY = lookup.findVarHandle(FdState.class, "writeReady", boolean.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        /// epoll_ctl 使用的 epoll_event 与 errno, 持有 FdState 的锁时使用
+        final MemorySegment event;
+        final MemorySegment errno;
+        /// 当前占用该fd的通道
+        SelectableChannel channel;
+        /// 等待读、写的虚拟线程
+        volatile SimpleVirtualThread reader;
+        volatile SimpleVirtualThread writer;
+        /// 边缘触发模式下, 上次等待之后是否出现过读、写就绪
+        volatile boolean readReady;
+        volatile boolean writeReady;
+
+        FdState(MemorySegment event, MemorySegment errno) {
+            this.event = event;
+            this.errno = errno;
+        }
+    }
+}
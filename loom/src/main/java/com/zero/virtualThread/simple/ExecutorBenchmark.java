@@ -0,0 +1,123 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 对比 {@link SimpleExecutorService} 与 {@link Executors#newVirtualThreadPerTaskExecutor()} 的吞吐量和分配量.
+ *  - future: CompletableFuture.supplyAsync 之后接 thenApplyAsync, 每个任务两次提交.
+ *  - invokeAll: 父任务在执行器中调用 invokeAll 扇出 FANOUT 个子任务并等待全部结果, 等待期间父任务只挂起虚拟线程.
+ *  - invokeAny: 父任务调用 invokeAny, FANOUT 个子任务中只有最后一个成功, 其余抛出异常.
+ *  - 载体数与 JDK 虚拟线程调度器的并行度一致; 分配量通过 {@link com.sun.management.ThreadMXBean#getTotalThreadAllocatedBytes()} 统计.
+ * 运行参数: [tasks=200000]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 03:30 </p>
+ */
+public class ExecutorBenchmark {
+    private static final int CARRIERS = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    /// invokeAll/invokeAny 每个父任务的子任务数
+    private static final int FANOUT = 8;
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        var mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (String workload : new String[]{"future", "invokeAll", "invokeAny"}) {
+                for (boolean simple : new boolean[]{true, false}) {
+                    long bytes = mxBean.getTotalThreadAllocatedBytes();
+                    long elapsed;
+                    try (ExecutorService executor = simple ? new SimpleExecutorService(CARRIERS)
+                            : Executors.newVirtualThreadPerTaskExecutor()) {
+                        long start = System.nanoTime();
+                        run(executor, workload, tasks);
+                        elapsed = System.nanoTime() - start;
+                    }
+                    bytes = mxBean.getTotalThreadAllocatedBytes() - bytes;
+                    if (round > 0) {
+                        System.out.printf("[%s] %-9s %,d tasks: %d ms, %,.0f tasks/s, %,d bytes/task%n",
+                                simple ? "simple" : "jdk", workload, tasks, elapsed / 1_000_000, tasks * 1e9 / elapsed, bytes / tasks);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void run(ExecutorService executor, String workload, int tasks) throws Exception {
+        switch (workload) {
+            case "future" -> {
+                List<CompletableFuture<Long>> futures = new ArrayList<>(tasks / 2);
+                for (int i = 0; i < tasks / 2; i++) {
+                    long seed = i;
+                    futures.add(CompletableFuture.supplyAsync(() -> compute(seed), executor)
+                            .thenApplyAsync(ExecutorBenchmark::compute, executor));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            }
+            case "invokeAll" -> fanOut(executor, tasks, parent -> {
+                long sum = 0;
+                for (Future<Long> future : executor.invokeAll(children(parent, FANOUT))) {
+                    sum += future.get();
+                }
+                return sum;
+            });
+            case "invokeAny" -> fanOut(executor, tasks, parent -> {
+                List<Callable<Long>> children = new ArrayList<>(FANOUT);
+                for (int i = 0; i < FANOUT - 1; i++) {
+                    children.add(() -> {
+                        throw new IllegalStateException("miss");
+                    });
+                }
+                children.add(() -> compute(parent));
+                return executor.invokeAny(children);
+            });
+            default -> throw new IllegalArgumentException(workload);
+        }
+    }
+
+    /**
+     * 提交 tasks / (FANOUT + 1) 个父任务并等待它们结束, 每个父任务连同子任务共 FANOUT + 1 个任务
+     */
+    private static void fanOut(ExecutorService executor, int tasks, Parent parent) throws InterruptedException, ExecutionException {
+        List<Future<Long>> parents = new ArrayList<>();
+        for (int i = 0; i < tasks / (FANOUT + 1); i++) {
+            long seed = i;
+            parents.add(executor.submit(() -> parent.run(seed)));
+        }
+        for (Future<Long> future : parents) {
+            future.get();
+        }
+    }
+
+    private static List<Callable<Long>> children(long parent, int n) {
+        List<Callable<Long>> children = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long seed = parent * n + i;
+            children.add(() -> compute(seed));
+        }
+        return children;
+    }
+
+    /// 一小段计算, 避免任务被完全优化掉
+    private static long compute(long seed) {
+        long x = seed;
+        for (int i = 0; i < 100; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x;
+    }
+
+    @FunctionalInterface
+    private interface Parent {
+        long run(long seed) throws Exception;
+    }
+}
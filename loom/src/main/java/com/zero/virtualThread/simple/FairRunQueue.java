@@ -0,0 +1,119 @@
+package com.zero.virtualThread.simple;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 按调度组加权公平的运行队列, 算法为差额轮询(Deficit Round Robin).
+ *  - 每个组有自己的 FIFO 队列, 有任务的组排成一个活跃列表.
+ *  - 轮到队首的组时, 若本轮额度已用完则补充 weight 次额度并移到队尾; 否则取出一个任务, 额度减一.
+ *    因此各组按权重比例分配挂载次数, 一个组瞬间提交大量任务也只会排长自己的队列.
+ *  - 达到并发上限的组暂时跳过, 其任务卸载时返回 true, 由调度器唤醒空闲载体.
+ *  - 计费单位是挂载次数而不是 CPU 时间, 适合每次挂载耗时相近的请求处理场景.
+ * 所有操作都在一把锁内完成, 每次入队/出队都是 O(1)(不计跳过的组).
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 00:20 </p>
+ */
+public class FairRunQueue implements RunQueue {
+    /// 未指定调度组的虚拟线程所在的组
+    private final SchedulingGroup defaultGroup;
+    /// 有任务等待的组, 队首为当前正在服务的组
+    private final ArrayDeque<SchedulingGroup> active = new ArrayDeque<>();
+    /// 所有出现过的组, 用于查看指标
+    private final List<SchedulingGroup> groups = new CopyOnWriteArrayList<>();
+    private int size;
+
+    public FairRunQueue() {
+        this(new SchedulingGroup("default", 1));
+    }
+
+    public FairRunQueue(SchedulingGroup defaultGroup) {
+        this.defaultGroup = defaultGroup;
+        defaultGroup.registered = true;
+        groups.add(defaultGroup);
+    }
+
+    @Override
+    public synchronized void offer(SimpleVirtualThread task) {
+        SchedulingGroup group = groupOf(task);
+        group.queue.add(task);
+        group.updateQueueDepth();
+        size++;
+        if (!group.active) {
+            group.active = true;
+            group.deficit = 0;
+            active.addLast(group);
+            if (!group.registered) {
+                group.registered = true;
+                groups.add(group);
+            }
+        }
+    }
+
+    @Override
+    public synchronized SimpleVirtualThread poll() {
+        // 连续跳过的达到并发上限的组, 全部跳过一遍后说明没有可运行的任务
+        int skipped = 0;
+        while (skipped < active.size()) {
+            SchedulingGroup group = active.peekFirst();
+            if (group.deficit <= 0) {
+                // 本轮额度用完, 补充后排到队尾
+                group.deficit += group.weight();
+                active.addLast(active.pollFirst());
+                continue;
+            }
+            if (group.atQuota()) {
+                active.addLast(active.pollFirst());
+                skipped++;
+                continue;
+            }
+            SimpleVirtualThread task = group.queue.poll();
+            group.updateQueueDepth();
+            group.deficit--;
+            group.running++;
+            size--;
+            if (group.queue.isEmpty()) {
+                // 没有任务的组离开活跃列表, 不保留额度
+                active.pollFirst();
+                group.active = false;
+                group.deficit = 0;
+            }
+            group.dispatched.increment();
+            group.latency.record(System.nanoTime() - task.scheduledAt);
+            return task;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized boolean unmounted(SimpleVirtualThread task, SchedulingGroup mountedGroup) {
+        SchedulingGroup group = mountedGroup != null ? mountedGroup : defaultGroup;
+        boolean wasAtQuota = group.atQuota();
+        group.running--;
+        return wasAtQuota && !group.queue.isEmpty();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 所有出现过的调度组
+     */
+    public List<SchedulingGroup> groups() {
+        return List.copyOf(groups);
+    }
+
+    private SchedulingGroup groupOf(SimpleVirtualThread task) {
+        SchedulingGroup group = task.group;
+        return group != null ? group : defaultGroup;
+    }
+}
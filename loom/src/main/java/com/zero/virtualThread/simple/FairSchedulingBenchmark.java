@@ -0,0 +1,96 @@
+package com.zero.virtualThread.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 多租户公平调度基准: 一个租户瞬间提交大量任务(noisy), 另一个租户以固定间隔提交少量请求(small),
+ * 对比 FIFO 运行队列与按调度组加权公平的 {@link FairRunQueue} 下 small 租户请求从提交到完成的延迟.
+ *  - 两个租户权重相同; 每个任务忙等 [work=50] 微秒, 模拟一次挂载的计算量.
+ *  - noisy 租户同时可以通过 [noisyQuota=0] 限制并发数, 0 表示不限制.
+ * 运行参数: [carriers=2] [noisyTasks=20000] [work=50] [noisyQuota=0]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 00:40 </p>
+ */
+public class FairSchedulingBenchmark {
+    /// small 租户提交请求的间隔
+    private static final long SMALL_INTERVAL_NANOS = 2_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int carriers = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int noisyTasks = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        long workNanos = (args.length > 2 ? Long.parseLong(args[2]) : 50) * 1000;
+        int noisyQuota = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (boolean fair : new boolean[]{false, true}) {
+                run(fair, carriers, noisyTasks, workNanos, noisyQuota, round > 0);
+            }
+        }
+    }
+
+    private static void run(boolean fair, int carriers, int noisyTasks, long workNanos, int noisyQuota, boolean report)
+            throws InterruptedException {
+        var noisy = new SchedulingGroup("noisy", 1, noisyQuota);
+        var small = new SchedulingGroup("small", 1);
+        RunQueue runQueue = fair ? new FairRunQueue() : new FifoRunQueue();
+        LatencyHistogram smallLatency = new LatencyHistogram();
+        long start;
+        long elapsed;
+        int requests;
+        try (var scheduler = new SimpleVirtualScheduler(carriers, runQueue)) {
+            scheduler.run();
+            var done = new CountDownLatch(noisyTasks);
+            start = System.nanoTime();
+            for (int i = 0; i < noisyTasks; i++) {
+                var vt = new SimpleVirtualThread(() -> {
+                    spin(workNanos);
+                    done.countDown();
+                });
+                vt.setGroup(noisy);
+                scheduler.schedule(vt);
+            }
+            // noisy 租户的任务执行期间, small 租户按固定间隔提交请求
+            List<SimpleVirtualThread> smallRequests = new ArrayList<>();
+            while (done.getCount() > 0) {
+                long submitted = System.nanoTime();
+                var vt = new SimpleVirtualThread(() -> {
+                    spin(workNanos);
+                    smallLatency.record(System.nanoTime() - submitted);
+                });
+                vt.setGroup(small);
+                smallRequests.add(scheduler.schedule(vt));
+                LockSupport.parkNanos(SMALL_INTERVAL_NANOS);
+            }
+            done.await();
+            elapsed = System.nanoTime() - start;
+            // FIFO 下 small 租户的请求排在 noisy 租户之后, 等它们全部完成再统计
+            smallRequests.forEach(SimpleVirtualThread::join);
+            requests = smallRequests.size();
+        }
+        if (report) {
+            LatencyHistogram.Distribution d = LatencyHistogram.distribution(smallLatency);
+            System.out.printf("[%s] noisy: %,d tasks in %d ms, small: %d requests, latency p50: %,d us, p99: %,d us, max: %,d us%n",
+                    fair ? "fair" : "fifo", noisyTasks, elapsed / 1_000_000, requests,
+                    d.p50() / 1000, d.p99() / 1000, d.max() / 1000);
+            if (runQueue instanceof FairRunQueue queue) {
+                for (SchedulingGroup group : queue.groups()) {
+                    LatencyHistogram.Distribution q = group.latency();
+                    System.out.printf("    group %s: dispatched %,d, queue wait p50: %,d us, p99: %,d us%n",
+                            group.name(), group.dispatched(), q.p50() / 1000, q.p99() / 1000);
+                }
+            }
+        }
+    }
+
+    /// 忙等模拟计算
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.zero.virtualThread.simple;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * 先到先服务的运行队列, 调度器的默认实现.
+ *  - 默认使用 {@link MpmcArrayQueue}, 入队出队不分配节点; 数组满时溢出到 {@link ConcurrentLinkedQueue},
+ *    溢出期间新任务也进入溢出队列, 两者之间只保证大致的先后顺序.
+ *  - -Dsimple.runQueue=linked 时只使用 {@link ConcurrentLinkedQueue}, 用于对比.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 00:20 </p>
+ */
+final class FifoRunQueue implements RunQueue {
+    /// 数组队列的容量, 来自 -Dsimple.runQueueCapacity
+    private static final int CAPACITY = Integer.getInteger("simple.runQueueCapacity", 1 << 14);
+    private static final boolean LINKED = "linked".equals(System.getProperty("simple.runQueue"));
+
+    /// 数组队列, 只使用链表队列时为 null
+    private final MpmcArrayQueue<SimpleVirtualThread> ring = LINKED ? null : new MpmcArrayQueue<>(CAPACITY);
+    private final Queue<SimpleVirtualThread> overflow = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void offer(SimpleVirtualThread task) {
+        if (ring == null || !overflow.isEmpty() || !ring.offer(task)) {
+            overflow.add(task);
+        }
+    }
+
+    @Override
+    public SimpleVirtualThread poll() {
+        SimpleVirtualThread task;
+        if (ring != null && (task = ring.poll()) != null) {
+            return task;
+        }
+        return overflow.poll();
+    }
+
+    @Override
+    public int drain(Consumer<? super SimpleVirtualThread> sink, int limit) {
+        if (ring != null) {
+            int n = ring.drain(sink, limit);
+            if (n > 0) {
+                return n;
+            }
+        }
+        return RunQueue.super.drain(sink, limit);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (ring == null || ring.isEmpty()) && overflow.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return (ring == null ? 0 : ring.size()) + (overflow.isEmpty() ? 0 : overflow.size());
+    }
+}
@@ -0,0 +1,235 @@
+package com.zero.virtualThread.simple;
+
+import com.zero.panama.example.ffi.uring.IoUring;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基于 panama 模块中 {@link IoUring} 的异步文件读取, 由 {@link SimpleVirtualScheduler} 持有.
+ *  - 虚拟线程调用 {@link #read} 提交读请求后通过 {@link SimpleVirtualThread#park()} 让出载体, 等待期间不占用载体线程.
+ *  - 轮询线程独占 ring(IoUring 不是线程安全的, 内部的 errno 内存也只能由创建它的线程访问):
+ *    把提交的请求批量填入 SQ, 通过一次 io_uring_enter 提交并等待完成, 再将完成的虚拟线程批量交还给调度器.
+ *  - 轮询线程阻塞在 io_uring_enter 中时, 新请求在下一个读请求完成后才会提交; 没有进行中的请求时轮询线程 park.
+ *  - 读请求完成前目标内存必须保持有效, 因此等待中的虚拟线程不响应取消. 轮询器关闭后不再提交新请求:
+ *    尚未提交的请求以 -ECANCELED 结束, 已提交的请求等到完成后才关闭 ring.
+ *  - 调度器关闭后完成的虚拟线程无法再被调度, 只记录结果, 不再交还给调度器.
+ * 运行参数 --enable-native-access=ALL-UNNAMED, 需要允许 io_uring 的内核(部分容器会通过 seccomp 禁用).
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 04:00 </p>
+ */
+public class IoUringPoller implements AutoCloseable {
+    /// 关闭时仍未提交的请求的结果
+    private static final int ECANCELED = 125;
+
+    private final SimpleVirtualScheduler scheduler;
+    /// 等待填入 SQ 的请求
+    private final Queue<Request> pending = new ConcurrentLinkedQueue<>();
+    /// 本轮完成、需要重新调度的虚拟线程
+    private final List<SimpleVirtualThread> ready = new ArrayList<>();
+    private final Thread poller;
+    private volatile boolean running = true;
+    private volatile long completed;
+    /// 以下字段只由轮询线程读写
+    private IoUring ring;
+    /// 按 userData(槽位下标) 记录进行中的请求
+    private Request[] inflight;
+    /// 空闲槽位栈
+    private int[] freeSlots;
+    private int freeTop;
+    private int inflightCount;
+
+    /**
+     * @param entries SQ 的大小, 同时也是单次 io_uring_enter 最多能提交的请求数
+     */
+    public IoUringPoller(SimpleVirtualScheduler scheduler, int entries) {
+        this.scheduler = scheduler;
+        this.inflight = new Request[entries];
+        this.freeSlots = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            freeSlots[i] = entries - 1 - i;
+        }
+        this.freeTop = entries;
+        // ring 在轮询线程中创建, 创建失败时在这里抛出
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        poller = new Thread(() -> runPoller(entries, started), "simple-io-uring-poller");
+        poller.setDaemon(true);
+        poller.start();
+        try {
+            started.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * 从文件的指定位置读取数据, 阻塞当前虚拟线程直到读取完成
+     * @param fd 文件描述符
+     * @param segment 目标内存, 最多读取 segment.byteSize() 个字节
+     * @param offset 文件偏移量
+     * @return 读取的字节数, 失败时为 -errno
+     */
+    public int read(int fd, MemorySegment segment, long offset) {
+        SimpleVirtualThread vt = SimpleVirtualThread.current();
+        if (vt == null) {
+            throw new IllegalStateException("not in a SimpleVirtualThread");
+        }
+        if (!running) {
+            throw new IllegalStateException("io_uring poller closed");
+        }
+        Request request = new Request(fd, segment, offset, vt);
+        pending.add(request);
+        LockSupport.unpark(poller);
+        // 与轮询线程 "先清除 running 再清空 pending" 相对应: 此时仍在 pending 中的请求不会再被轮询线程取走
+        if (!running && pending.remove(request)) {
+            throw new IllegalStateException("io_uring poller closed");
+        }
+        while (!request.done) {
+            SimpleVirtualThread.park();
+        }
+        return request.result;
+    }
+
+    private void runPoller(int entries, CompletableFuture<Void> started) {
+        try {
+            ring = new IoUring(entries);
+        } catch (RuntimeException | Error e) {
+            running = false;
+            started.completeExceptionally(e);
+            return;
+        }
+        started.complete(null);
+        try {
+            // 关闭后仍要等待进行中的请求完成, 内核会继续写入它们的目标内存
+            while (running || inflightCount > 0) {
+                for (Request request; running && (request = pending.poll()) != null; ) {
+                    prepare(request);
+                }
+                if (inflightCount > 0) {
+                    // 本批次的所有请求一次性提交, 并至少等待一个完成
+                    ring.submit(1);
+                    ring.reap(this::complete);
+                    flushReady();
+                } else if (running && pending.isEmpty()) {
+                    LockSupport.park(this);
+                }
+            }
+        } finally {
+            // 正常退出时只剩下未提交的请求; 轮询线程异常退出时进行中的请求也不会再完成
+            running = false;
+            for (int slot = 0; slot < inflight.length; slot++) {
+                if (inflight[slot] != null) {
+                    finish(inflight[slot], -ECANCELED);
+                    inflight[slot] = null;
+                }
+            }
+            try {
+                for (Request request; (request = pending.poll()) != null; ) {
+                    finish(request, -ECANCELED);
+                }
+                flushReady();
+            } finally {
+                ring.close();
+            }
+        }
+    }
+
+    private void prepare(Request request) {
+        int slot = allocateSlot();
+        // SQ 已满: 先把已准备的请求提交给内核, 腾出空间
+        while (!ring.prepareRead(request.fd, request.segment, request.offset, slot)) {
+            ring.submit(0);
+        }
+        inflight[slot] = request;
+        inflightCount++;
+    }
+
+    private void complete(long userData, int res) {
+        int slot = (int) userData;
+        Request request = inflight[slot];
+        inflight[slot] = null;
+        freeSlots[freeTop++] = slot;
+        inflightCount--;
+        completed++;
+        finish(request, res);
+    }
+
+    private void finish(Request request, int res) {
+        request.result = res;
+        request.done = true;
+        if (request.thread.makeRunnable()) {
+            ready.add(request.thread);
+        }
+    }
+
+    /**
+     * 将本轮完成的虚拟线程批量交还给调度器, 调度器已经关闭时丢弃
+     */
+    private void flushReady() {
+        if (ready.isEmpty()) {
+            return;
+        }
+        try {
+            if (scheduler.isRunning()) {
+                scheduler.schedule(ready);
+            }
+        } catch (RuntimeException e) {
+            // 检查之后调度器才关闭
+            if (scheduler.isRunning()) {
+                throw e;
+            }
+        } finally {
+            ready.clear();
+        }
+    }
+
+    /// 槽位数量限制了同时进行的读请求数, 不够时按2倍扩容
+    private int allocateSlot() {
+        if (freeTop == 0) {
+            int size = inflight.length;
+            inflight = Arrays.copyOf(inflight, size * 2);
+            freeSlots = new int[size * 2];
+            for (int i = 0; i < size; i++) {
+                freeSlots[i] = size * 2 - 1 - i;
+            }
+            freeTop = size;
+        }
+        return freeSlots[--freeTop];
+    }
+
+    /// 已完成的读请求数
+    public long completed() {
+        return completed;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(poller);
+    }
+
+    /// 一次读请求, 结果由轮询线程写入
+    private static final class Request {
+        final int fd;
+        final MemorySegment segment;
+        final long offset;
+        final SimpleVirtualThread thread;
+        int result;
+        volatile boolean done;
+
+        Request(int fd, MemorySegment segment, long offset, SimpleVirtualThread thread) {
+            this.fd = fd;
+            this.segment = segment;
+            this.offset = offset;
+            this.thread = thread;
+        }
+    }
+}
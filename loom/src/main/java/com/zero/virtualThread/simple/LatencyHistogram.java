@@ -0,0 +1,116 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的对数分桶直方图, 用于记录纳秒级的延迟.
+ *  - 每个2的幂区间再均分为 {@link #SUB_BUCKETS} 个子桶, 相对误差不超过 1/8, 512 个桶覆盖全部非负 long.
+ *  - 记录只是对一个桶做原子自增, 可以被多个线程并发调用; 读取时拷贝所有桶, 不会阻塞写入方.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 20:20 </p>
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * 记录一个值, 负数按0处理
+     */
+    public void record(long value) {
+        counts.incrementAndGet(index(Math.max(0, value)));
+    }
+
+    /**
+     * 把另一个直方图的计数累加到本直方图
+     */
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+    }
+
+    /**
+     * 拷贝当前所有桶的计数
+     */
+    public long[] counts() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * 合并多个直方图, 统计其分布
+     */
+    public static Distribution distribution(LatencyHistogram... histograms) {
+        long[] merged = new long[BUCKETS];
+        for (LatencyHistogram histogram : histograms) {
+            if (histogram != null) {
+                for (int i = 0; i < BUCKETS; i++) {
+                    merged[i] += histogram.counts.get(i);
+                }
+            }
+        }
+        return Distribution.of(merged);
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /// 桶内的最大值, 作为该桶的代表值(偏保守)
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        long lower = (1L << exponent) + (sub << (exponent - SUB_BITS));
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+
+    /**
+     * 直方图的分布统计, 百分位值为所在桶的上界
+     * @param count 样本数
+     */
+    public record Distribution(long count, long p50, long p90, long p99, long p999, long max) {
+        static final Distribution EMPTY = new Distribution(0, 0, 0, 0, 0, 0);
+
+        static Distribution of(long[] counts) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) {
+                return EMPTY;
+            }
+            return new Distribution(total, percentile(counts, total, 0.5), percentile(counts, total, 0.9),
+                    percentile(counts, total, 0.99), percentile(counts, total, 0.999), percentile(counts, total, 1.0));
+        }
+
+        private static long percentile(long[] counts, long total, double p) {
+            long rank = Math.max(1, (long) Math.ceil(total * p));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(counts.length - 1);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.zero.virtualThread.simple;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 虚拟线程的一次挂载, 持续时间为虚拟线程在载体线程上连续运行的时长.
+ *  - 事件所在线程即载体线程.
+ *  - 默认只记录超过 10ms 的挂载, 这类虚拟线程长时间占用载体, 会推迟其他虚拟线程的调度.
+ * 通过 -XX:StartFlightRecording 开启记录, jfr print --events com.zero.simple.Mount 查看.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 19:50 </p>
+ */
+@Name("com.zero.simple.Mount")
+@Label("Simple Virtual Thread Mount")
+@Category({"Simple Virtual Thread"})
+@Description("Time a SimpleVirtualThread ran on its carrier before it yielded or terminated")
+@StackTrace(false)
+@Threshold("10 ms")
+final class MountEvent extends Event {
+    @Label("Virtual Thread Id")
+    int vt;
+
+    @Label("Terminated")
+    boolean terminated;
+}
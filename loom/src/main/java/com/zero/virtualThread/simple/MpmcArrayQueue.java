@@ -0,0 +1,203 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 基于数组的有界无锁多生产者多消费者队列, 用作调度器的全局运行队列.
+ *  - 每个槽位带一个序号(Vyukov 有界 MPMC 队列): 生产者 CAS 推进生产下标占住槽位, 写入元素后以 release 语义发布序号;
+ *    消费者以 acquire 语义读到已发布的序号后 CAS 推进消费下标取走元素, 再把序号推进一圈归还槽位. 入队出队都不分配内存.
+ *  - 生产下标和消费下标放在同一个 long 数组中相隔两个缓存行的位置, 避免生产者与消费者之间的伪共享.
+ *  - {@link #drain} 一次 CAS 取走连续的一批已发布元素, 减少消费者之间在消费下标上的竞争.
+ *  - 不支持 null 元素, 队列满时 {@link #offer} 返回 false.
+ *  - 迭代器是弱一致的: 只遍历创建时位于两个下标之间、且读取时仍未被取走的元素, 不会抛出 ConcurrentModificationException.
+ *    不支持从队列中间删除元素, 因此 {@link Iterator#remove()} 以及 remove(Object) 等批量删除操作抛出 UnsupportedOperationException.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 02:00 </p>
+ */
+public final class MpmcArrayQueue<E> extends AbstractQueue<E> {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    /// 两个缓存行(128 字节)对应的 long 个数, 同时覆盖相邻缓存行预取
+    private static final int PAD = 16;
+    private static final int PRODUCER = PAD;
+    private static final int CONSUMER = PAD * 2;
+
+    /// 生产下标与消费下标, 前后各留出 PAD 个 long 的空隙
+    private final long[] indices = new long[PAD * 3 + 1];
+    /// 槽位序号: 等于下标时可写入, 等于下标 + 1 时可读取
+    private final long[] sequences;
+    private final Object[] elements;
+    private final int mask;
+
+    /**
+     * @param capacity 容量, 向上取整为2的幂
+     */
+    public MpmcArrayQueue(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        elements = new Object[size];
+        sequences = new long[size];
+        for (int i = 0; i < size; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        while (true) {
+            long index = (long) LONGS.getVolatile(indices, PRODUCER);
+            int offset = (int) index & mask;
+            long sequence = (long) LONGS.getAcquire(sequences, offset);
+            if (sequence == index) {
+                if (LONGS.compareAndSet(indices, PRODUCER, index, index + 1)) {
+                    elements[offset] = e;
+                    LONGS.setRelease(sequences, offset, index + 1);
+                    return true;
+                }
+            } else if (sequence < index) {
+                // 槽位中还是上一圈的元素, 队列已满
+                return false;
+            }
+            // 其他生产者已经占用了该槽位, 重新读取生产下标
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        while (true) {
+            long index = (long) LONGS.getVolatile(indices, CONSUMER);
+            int offset = (int) index & mask;
+            long sequence = (long) LONGS.getAcquire(sequences, offset);
+            if (sequence == index + 1) {
+                if (LONGS.compareAndSet(indices, CONSUMER, index, index + 1)) {
+                    E e = (E) elements[offset];
+                    elements[offset] = null;
+                    LONGS.setRelease(sequences, offset, index + mask + 1);
+                    return e;
+                }
+            } else if (sequence <= index) {
+                // 槽位尚未发布(队列为空, 或生产者占住槽位还未写入)
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 一次取出最多 limit 个元素交给 sink
+     * 从消费下标开始向后扫描连续的已发布槽位, 再用一次 CAS 将它们全部占住.
+     * @return 取出的元素个数
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> sink, int limit) {
+        while (true) {
+            long index = (long) LONGS.getVolatile(indices, CONSUMER);
+            int n = 0;
+            while (n < limit && (long) LONGS.getAcquire(sequences, (int) (index + n) & mask) == index + n + 1) {
+                n++;
+            }
+            if (n == 0) {
+                return 0;
+            }
+            if (LONGS.compareAndSet(indices, CONSUMER, index, index + n)) {
+                for (int i = 0; i < n; i++) {
+                    int offset = (int) (index + i) & mask;
+                    E e = (E) elements[offset];
+                    elements[offset] = null;
+                    LONGS.setRelease(sequences, offset, index + i + mask + 1);
+                    sink.accept(e);
+                }
+                return n;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long index = (long) LONGS.getVolatile(indices, CONSUMER);
+        int offset = (int) index & mask;
+        if ((long) LONGS.getAcquire(sequences, offset) != index + 1) {
+            return null;
+        }
+        // 槽位可能在读取之前被其他消费者取走, 只作为近似值
+        return (E) ELEMENTS.getAcquire(elements, offset);
+    }
+
+    /**
+     * 只比较两个下标, 不访问槽位. 生产者已占住但尚未写入的槽位也算作非空.
+     */
+    @Override
+    public boolean isEmpty() {
+        return (long) LONGS.getVolatile(indices, CONSUMER) == (long) LONGS.getVolatile(indices, PRODUCER);
+    }
+
+    @Override
+    public int size() {
+        // 先读消费下标, 保证差值不会为负(并发修改时只是近似值)
+        long consumer = (long) LONGS.getVolatile(indices, CONSUMER);
+        long producer = (long) LONGS.getVolatile(indices, PRODUCER);
+        return (int) Math.max(0, Math.min(producer - consumer, mask + 1L));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * 弱一致迭代器: 遍历创建时的 [消费下标, 生产下标) 区间.
+     * 槽位序号在读取元素前后都等于下标 + 1 时, 读到的才是该下标上的元素; 否则元素已被取走或尚未发布, 跳过该下标.
+     */
+    private final class Itr implements Iterator<E> {
+        private final long end = (long) LONGS.getVolatile(indices, PRODUCER);
+        private long index = (long) LONGS.getVolatile(indices, CONSUMER);
+        private E next = advance();
+
+        @SuppressWarnings("unchecked")
+        private E advance() {
+            for (; index < end; index++) {
+                int offset = (int) index & mask;
+                if ((long) LONGS.getAcquire(sequences, offset) != index + 1) {
+                    continue;
+                }
+                Object e = ELEMENTS.getAcquire(elements, offset);
+                if (e != null && (long) LONGS.getAcquire(sequences, offset) == index + 1) {
+                    index++;
+                    return (E) e;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            E e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            next = advance();
+            return e;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.zero.virtualThread.simple;
 
 import java.time.Duration;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 使用自定义的调度器来运行大量虚拟线程
  *  - 通过10个平台线程运行1000个虚拟线程.
+ *  - 一个父虚拟线程分发1000个子虚拟线程并逐个 join(让出而不阻塞载体), 主线程 join 父虚拟线程后关闭调度器.
  *
  * @author Zero.
  * <p> Created on 2025/7/13 18:24 </p>
@@ -14,19 +16,24 @@ public class MultiExample {
     /// 虚拟线程调度器
     public static final SimpleVirtualScheduler SCHEDULER = new SimpleVirtualScheduler(10);
 
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) {
         // 运行调度器
         new Thread(SCHEDULER).start();
-        // 创建1w个虚拟线程
-        for (int i = 1; i <= 1000; i++) {
-            int n = i;
-            SCHEDULER.schedule(new SimpleVirtualThread(() -> {
-                // 模拟阻塞操作
-                WaitingOperate.preform("sleep", Duration.ofMillis(100), SCHEDULER);
-                System.out.println("第 " + n + "个 Virtual thread执行...");
-            }));
-        }
-
-        new CountDownLatch(1).await();
+        SimpleVirtualThread parent = SCHEDULER.schedule(new SimpleVirtualThread(() -> {
+            // 创建1000个虚拟线程
+            List<SimpleVirtualThread> children = new ArrayList<>();
+            for (int i = 1; i <= 1000; i++) {
+                int n = i;
+                children.add(SCHEDULER.schedule(new SimpleVirtualThread(() -> {
+                    // 模拟阻塞操作
+                    WaitingOperate.preform("sleep", Duration.ofMillis(100), SCHEDULER);
+                    System.out.println("第 " + n + "个 Virtual thread执行...");
+                })));
+            }
+            children.forEach(SimpleVirtualThread::join);
+        }));
+        parent.whenComplete(failure -> System.out.println("所有 Virtual thread 执行完毕"));
+        parent.join();
+        SCHEDULER.close();
     }
 }
@@ -0,0 +1,50 @@
+package com.zero.virtualThread.simple;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * pinned 检测示例: 虚拟线程在 synchronized 块中等待, 续体无法让出.
+ *  - OFFLOAD 策略下载体被阻塞, 由载体池补偿; FAIL_FAST 策略下 park 抛出异常.
+ *  - 结束时输出 {@link PinningMonitor} 按位置统计的次数及调用栈.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 22:10 </p>
+ */
+public class PinningExample {
+    private static final Object LOCK = new Object();
+
+    public static void main(String[] args) throws InterruptedException {
+        for (SimpleVirtualScheduler.PinnedPolicy policy : SimpleVirtualScheduler.PinnedPolicy.values()) {
+            try (var scheduler = new SimpleVirtualScheduler(2)) {
+                scheduler.setPinnedPolicy(policy);
+                new Thread(scheduler).start();
+                Thread.sleep(100);
+                var done = new CountDownLatch(10);
+                long start = System.nanoTime();
+                for (int i = 0; i < 10; i++) {
+                    scheduler.schedule(new SimpleVirtualThread(() -> {
+                        try {
+                            waitInLock(scheduler);
+                        } catch (IllegalStateException e) {
+                            System.out.println(e.getMessage());
+                        } finally {
+                            done.countDown();
+                        }
+                    }));
+                }
+                done.await();
+                System.out.printf("[%s] finished in %d ms, pinned: %d, compensations: %d%n", policy,
+                        (System.nanoTime() - start) / 1_000_000, scheduler.metrics().getPinnedCount(),
+                        scheduler.metrics().getCompensationCount());
+            }
+        }
+        PinningMonitor.dump(System.out);
+    }
+
+    private static void waitInLock(SimpleVirtualScheduler scheduler) {
+        synchronized (LOCK) {
+            WaitingOperate.preform("lock", Duration.ofMillis(50), scheduler);
+        }
+    }
+}
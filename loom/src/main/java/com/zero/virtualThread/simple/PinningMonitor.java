@@ -0,0 +1,97 @@
+package com.zero.virtualThread.simple;
+
+import jdk.internal.vm.Continuation;
+
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 记录 {@link SimpleVirtualThread} 因 pinned 而让出失败的位置.
+ *  - 续体栈上存在 synchronized 持有的监视器、本地方法栈帧或临界区时无法让出, 虚拟线程只能继续占用载体.
+ *  - 按 "原因 + 调用 park 的业务代码位置" 归类计数, 每个位置保留第一次出现时的完整调用栈, 便于定位需要改造的代码.
+ *  - 业务代码位置是跳过 JDK 内部栈帧以及 {@link #SCHEDULER_CLASSES} 中的调度器实现类(包括它们的内部类和 lambda)的栈帧后的第一帧.
+ *    本包中新增调度器实现类时需要加入该列表, 否则其中的 park 会被当作业务代码.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 21:50 </p>
+ */
+public final class PinningMonitor {
+    /// 调度器实现类, 查找业务代码位置时跳过; 示例和基准测试不在其中
+    private static final Set<Class<?>> SCHEDULER_CLASSES = Set.of(
+            CarrierPool.class, CarrierThread.class, CpuAffinity.class, DeadlineRunQueue.class, EpollPoller.class,
+            FairRunQueue.class, FifoRunQueue.class, IoUringPoller.class, LatencyHistogram.class, MpmcArrayQueue.class,
+            PinningMonitor.class, Poller.class, PreemptionWatchdog.class, RunQueue.class, SchedulerMetrics.class,
+            SchedulingGroup.class, SelectorPoller.class, ShardedScheduler.class, SimpleChannel.class, SimpleCondition.class,
+            SimpleExecutorService.class, SimpleMutex.class, SimpleSemaphore.class, SimpleServerSocket.class, SimpleSocket.class,
+            SimpleVirtualScheduler.class, SimpleVirtualThread.class, SpscArrayQueue.class, TimingWheel.class, Tracer.class,
+            VirtualThreadBridge.class, WaitQueue.class, WaitingOperate.class);
+    /// 查找业务代码位置时跳过的类: JDK 内部类以及调度器实现类
+    private static final ClassValue<Boolean> INTERNAL = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            Module module = type.getModule();
+            if (module.isNamed() && (module.getName().startsWith("java.") || module.getName().startsWith("jdk."))) {
+                return true;
+            }
+            return SCHEDULER_CLASSES.contains(type.getNestHost());
+        }
+    };
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private static final Map<String, Site> SITES = new ConcurrentHashMap<>();
+
+    private PinningMonitor() {
+    }
+
+    /**
+     * 某个位置的 pinned 统计
+     * @param callSite 原因及调用位置
+     * @param count 出现次数
+     * @param stackTrace 第一次出现时的调用栈
+     */
+    public record PinnedSite(String callSite, long count, List<StackWalker.StackFrame> stackTrace) {
+    }
+
+    private record Site(LongAdder count, List<StackWalker.StackFrame> stackTrace) {
+    }
+
+    /**
+     * 在让出失败的虚拟线程中调用, 记录当前调用栈
+     * @return 原因及调用位置
+     */
+    static String record(Continuation.Pinned reason) {
+        List<StackWalker.StackFrame> stack = WALKER.walk(frames -> frames
+                .dropWhile(f -> INTERNAL.get(f.getDeclaringClass()))
+                .toList());
+        String callSite = reason + " at " + (stack.isEmpty() ? "unknown" : stack.getFirst());
+        SITES.computeIfAbsent(callSite, k -> new Site(new LongAdder(), stack)).count().increment();
+        return callSite;
+    }
+
+    /**
+     * 所有位置的统计, 按出现次数降序
+     */
+    public static List<PinnedSite> sites() {
+        return SITES.entrySet().stream()
+                .map(e -> new PinnedSite(e.getKey(), e.getValue().count().sum(), e.getValue().stackTrace()))
+                .sorted(Comparator.comparingLong(PinnedSite::count).reversed())
+                .toList();
+    }
+
+    /**
+     * 输出所有位置的统计及调用栈
+     */
+    public static void dump(PrintStream out) {
+        for (PinnedSite site : sites()) {
+            out.printf("%,d x pinned %s%n", site.count(), site.callSite());
+            for (StackWalker.StackFrame frame : site.stackTrace()) {
+                out.println("\tat " + frame);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.zero.virtualThread.simple;
+
+import java.nio.channels.SelectableChannel;
+
+/**
+ * IO 轮询器: 虚拟线程在通道暂时不可读/写时通过它让出载体, 通道就绪后再被重新调度.
+ *  - {@link SelectorPoller} 基于 JDK Selector, 所有平台可用.
+ *  - {@link EpollPoller} 通过 Panama 直接调用 Linux epoll, 可通过 -Dsimple.poller=epoll 启用.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 16:05 </p>
+ */
+public interface Poller extends AutoCloseable {
+
+    /**
+     * 阻塞当前虚拟线程，直到通道上的事件就绪. 可能会提前返回, 调用方需要重试IO操作.
+     * @param channel 非阻塞模式的通道
+     * @param ops 感兴趣的事件 {@link java.nio.channels.SelectionKey#OP_READ} 等
+     */
+    void await(SelectableChannel channel, int ops);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,81 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 对比每次新建 {@link SimpleVirtualThread} 与通过 {@link SimpleVirtualThread#pooled} 复用虚拟线程的分配量和吞吐量.
+ *  - 多条任务链并发执行, 每个任务结束前在载体线程上创建并提交下一个任务, 任务本身(Runnable)在链内复用,
+ *    因此两种模式的差异只来自虚拟线程及其续体的分配.
+ *  - 分配量通过 {@link com.sun.management.ThreadMXBean#getTotalThreadAllocatedBytes()} 统计, 包含所有线程.
+ * 运行参数: [tasks=1000000]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 18:40 </p>
+ */
+public class PoolingBenchmark {
+    /// 载体线程数
+    private static final int THREADS = 4;
+    /// 并发的任务链数量
+    private static final int CHAINS = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        var mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (boolean pooled : new boolean[]{false, true}) {
+                long bytes = mxBean.getTotalThreadAllocatedBytes();
+                long elapsed = bench(pooled, tasks);
+                bytes = mxBean.getTotalThreadAllocatedBytes() - bytes;
+                if (round > 0) {
+                    System.out.printf("[%s] %,d tasks: %d ms, %,.0f tasks/s, %,d bytes/task%n", pooled ? "pooled" : "new",
+                            tasks, elapsed / 1_000_000, tasks * 1e9 / elapsed, bytes / tasks);
+                }
+            }
+        }
+    }
+
+    private static long bench(boolean pooled, int tasks) throws InterruptedException {
+        try (var scheduler = new SimpleVirtualScheduler(THREADS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            var done = new CountDownLatch(CHAINS);
+            long start = System.nanoTime();
+            for (int i = 0; i < CHAINS; i++) {
+                new Chain(scheduler, pooled, tasks / CHAINS, done).next();
+            }
+            done.await();
+            return System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * 任务链: 每个任务结束前创建下一个虚拟线程, 直到执行完指定数量的任务
+     */
+    private static final class Chain implements Runnable {
+        private final SimpleVirtualScheduler scheduler;
+        private final boolean pooled;
+        private final CountDownLatch done;
+        private int remaining;
+
+        Chain(SimpleVirtualScheduler scheduler, boolean pooled, int remaining, CountDownLatch done) {
+            this.scheduler = scheduler;
+            this.pooled = pooled;
+            this.remaining = remaining;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            if (--remaining > 0) {
+                next();
+            } else {
+                done.countDown();
+            }
+        }
+
+        void next() {
+            scheduler.schedule(pooled ? SimpleVirtualThread.pooled(this) : new SimpleVirtualThread(this));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.zero.virtualThread.simple;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 协作式抢占示例: 与载体数相同的计算密集任务各自运行1秒, 同时有100个短请求(等待1ms后做少量计算).
+ *  - 计算任务在循环中调用 {@link SimpleVirtualThread#checkpoint()} 时, 超过时间片后让出载体, 短请求的延迟不超过一个时间片左右.
+ *  - 不调用检查点时, 短请求要等计算任务全部结束才能运行.
+ * 运行参数: [checkpoint=true], 时间片通过 -Dsimple.timeSliceMillis 调整.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 01:50 </p>
+ */
+public class PreemptionExample {
+    private static final int CARRIERS = 2;
+
+    public static void main(String[] args) {
+        boolean checkpoint = args.length == 0 || Boolean.parseBoolean(args[0]);
+        LatencyHistogram latency = new LatencyHistogram();
+        try (var scheduler = new SimpleVirtualScheduler(CARRIERS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            List<SimpleVirtualThread> tasks = new ArrayList<>();
+            for (int i = 0; i < CARRIERS; i++) {
+                tasks.add(scheduler.schedule(new SimpleVirtualThread(() -> {
+                    long deadline = System.nanoTime() + 1_000_000_000L;
+                    while (System.nanoTime() < deadline) {
+                        if (checkpoint) {
+                            SimpleVirtualThread.checkpoint();
+                        }
+                    }
+                })));
+            }
+            for (int i = 0; i < 100; i++) {
+                long submitted = System.nanoTime();
+                tasks.add(scheduler.schedule(new SimpleVirtualThread(() -> {
+                    scheduler.timer().sleep(Duration.ofMillis(1));
+                    long deadline = System.nanoTime() + 100_000;
+                    while (System.nanoTime() < deadline) {
+                        Thread.onSpinWait();
+                    }
+                    latency.record(System.nanoTime() - submitted);
+                })));
+            }
+            tasks.forEach(SimpleVirtualThread::join);
+            var metrics = scheduler.metrics().snapshot();
+            LatencyHistogram.Distribution d = LatencyHistogram.distribution(latency);
+            System.out.printf("checkpoint: %s, short requests latency p50: %,d us, p99: %,d us, max: %,d us, overruns: %,d, preemptions: %,d%n",
+                    checkpoint, d.p50() / 1000, d.p99() / 1000, d.max() / 1000, metrics.overruns(), metrics.preemptions());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 时间片看门狗, 配合 {@link SimpleVirtualThread#checkpoint()} 实现协作式抢占.
+ *  - 每半个时间片检查一次所有载体, 当前这次挂载超过时间片的载体被标记为需要抢占, 同时记录一次超时.
+ *  - 标记的是那次挂载的开始时间, 虚拟线程卸载后新的挂载不会误用旧的标记.
+ *  - 同时检查载体的 runNext: 唤醒方长时间占用载体时唤醒空闲的载体去窃取, 避免被唤醒的虚拟线程一直等待.
+ *  - 看门狗只做标记, 真正的让出发生在虚拟线程下一次调用检查点时; 从不调用检查点的任务仍会一直占用载体.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 01:40 </p>
+ */
+final class PreemptionWatchdog {
+    private final SimpleVirtualScheduler scheduler;
+    private final long timeSliceNanos;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    PreemptionWatchdog(SimpleVirtualScheduler scheduler, long timeSliceNanos) {
+        this.scheduler = scheduler;
+        this.timeSliceNanos = timeSliceNanos;
+        thread = new Thread(this::run, "simple-preemption-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, timeSliceNanos / 2);
+            long now = System.nanoTime();
+            for (CarrierThread carrier : scheduler.carriers()) {
+                if (carrier == null) {
+                    continue;
+                }
+                long mountedAt = carrier.mountedAt;
+                if (mountedAt != 0 && now - mountedAt > timeSliceNanos && carrier.preemptAt != mountedAt) {
+                    carrier.preemptAt = mountedAt;
+                    scheduler.metrics().overruns.increment();
+                }
+                // 唤醒方长时间不卸载时, 叫醒空闲的载体窃取它的 runNext
+                if (mountedAt != 0 && carrier.runNext != null && now - mountedAt > timeSliceNanos / 2) {
+                    scheduler.signalWork();
+                }
+            }
+        }
+    }
+
+    void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+}
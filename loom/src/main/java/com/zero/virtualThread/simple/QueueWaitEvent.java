@@ -0,0 +1,30 @@
+package com.zero.virtualThread.simple;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 虚拟线程从提交给调度器到真正挂载之间的排队时长.
+ *  - 事件在 {@link SimpleVirtualScheduler#schedule} 中开始, 挂载时结束, 所在线程为执行它的载体线程.
+ *  - 跨线程传递需要为每次提交创建事件对象, 因此只在该事件开启时才创建, 关闭时没有任何开销.
+ *  - 默认只记录超过 10ms 的排队.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 19:52 </p>
+ */
+@Name("com.zero.simple.QueueWait")
+@Label("Simple Virtual Thread Queue Wait")
+@Category({"Simple Virtual Thread"})
+@Description("Time a runnable SimpleVirtualThread waited in the run queue before it was mounted")
+@StackTrace(false)
+@Threshold("10 ms")
+final class QueueWaitEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(QueueWaitEvent.class);
+
+    @Label("Virtual Thread Id")
+    int vt;
+
+    /// 是否有正在进行的记录开启了该事件
+    static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
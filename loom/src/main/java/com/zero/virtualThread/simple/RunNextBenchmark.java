@@ -0,0 +1,116 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对比启用/关闭 runNext 槽位时, 请求/响应 ping-pong 的往返延迟.
+ *  - 每对虚拟线程通过两个 {@link SimpleChannel#rendezvous()} 通道来回传递请求和响应.
+ *  - 同时运行若干条后台任务链, 每个任务计算约10us后提交下一个任务, 使载体的本地队列中始终有排队的任务;
+ *    关闭 runNext 时, 被唤醒的一端要排在这些任务之后.
+ * 载体数与 JDK 虚拟线程调度器的并行度一致, 运行参数: [pairs=4] [roundTrips=10000] [backgroundChains=16]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 02:20 </p>
+ */
+public class RunNextBenchmark {
+    private static final int CARRIERS = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    private static final long BACKGROUND_WORK_NANOS = 10_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int roundTrips = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int chains = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (boolean runNext : new boolean[]{true, false}) {
+                LatencyHistogram latency = new LatencyHistogram();
+                LongAdder background = new LongAdder();
+                long elapsed = run(runNext, pairs, roundTrips, chains, latency, background);
+                if (round > 0) {
+                    LatencyHistogram.Distribution d = LatencyHistogram.distribution(latency);
+                    System.out.printf("[runNext=%s] %,d round trips, %,.0f round trips/s, latency p50: %,d ns, p99: %,d ns, p99.9: %,d ns, background tasks: %,d%n",
+                            runNext, (long) pairs * roundTrips, pairs * (double) roundTrips * 1e9 / elapsed,
+                            d.p50(), d.p99(), d.p999(), background.sum());
+                }
+            }
+        }
+    }
+
+    private static long run(boolean runNext, int pairs, int roundTrips, int chains, LatencyHistogram latency,
+                            LongAdder background) throws InterruptedException {
+        try (var scheduler = new SimpleVirtualScheduler(CARRIERS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.setRunNext(runNext);
+            scheduler.run();
+            var stop = new AtomicBoolean();
+            var stopped = new CountDownLatch(chains);
+            for (int i = 0; i < chains; i++) {
+                new Chain(scheduler, stop, stopped, background).next();
+            }
+            var done = new CountDownLatch(pairs * 2);
+            long start = System.nanoTime();
+            for (int p = 0; p < pairs; p++) {
+                SimpleChannel<Long> requests = SimpleChannel.rendezvous();
+                SimpleChannel<Long> responses = SimpleChannel.rendezvous();
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    for (int i = 0; i < roundTrips; i++) {
+                        long sent = System.nanoTime();
+                        requests.send(sent);
+                        responses.receive();
+                        latency.record(System.nanoTime() - sent);
+                    }
+                    requests.close();
+                    done.countDown();
+                }));
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    for (Long request; (request = requests.receive()) != null; ) {
+                        responses.send(request);
+                    }
+                    done.countDown();
+                }));
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+            stop.set(true);
+            stopped.await();
+            return elapsed;
+        }
+    }
+
+    /**
+     * 后台任务链: 每个任务计算一小段时间后提交下一个任务, 直到基准结束
+     */
+    private static final class Chain implements Runnable {
+        private final SimpleVirtualScheduler scheduler;
+        private final AtomicBoolean stop;
+        private final CountDownLatch stopped;
+        private final LongAdder background;
+
+        Chain(SimpleVirtualScheduler scheduler, AtomicBoolean stop, CountDownLatch stopped, LongAdder background) {
+            this.scheduler = scheduler;
+            this.stop = stop;
+            this.stopped = stopped;
+            this.background = background;
+        }
+
+        @Override
+        public void run() {
+            long deadline = System.nanoTime() + BACKGROUND_WORK_NANOS;
+            while (System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            background.increment();
+            if (stop.get()) {
+                stopped.countDown();
+            } else {
+                next();
+            }
+        }
+
+        void next() {
+            scheduler.schedule(SimpleVirtualThread.pooled(this));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.zero.virtualThread.simple;
+
+import java.util.function.Consumer;
+
+/**
+ * 调度器的全局运行队列, 决定载体下一个执行哪个虚拟线程.
+ *  - 默认为 {@link FifoRunQueue}, 先到先服务.
+ *  - 通过 {@link SimpleVirtualScheduler#SimpleVirtualScheduler(int, RunQueue)} 指定其他实现时, 所有载体都从这一个队列中取任务,
+ *    不再使用本地队列和工作窃取, 以保证队列的排序策略对所有任务生效.
+ * 实现需要是线程安全的.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 00:20 </p>
+ */
+public interface RunQueue {
+
+    /**
+     * 加入一个可运行的虚拟线程
+     */
+    void offer(SimpleVirtualThread task);
+
+    /**
+     * 取出下一个要运行的虚拟线程
+     * @return 没有可运行的虚拟线程时返回 null
+     */
+    SimpleVirtualThread poll();
+
+    /**
+     * 一次取出最多 limit 个虚拟线程交给 sink, 默认逐个 {@link #poll()}
+     * @return 取出的个数
+     */
+    default int drain(Consumer<? super SimpleVirtualThread> sink, int limit) {
+        int n = 0;
+        for (SimpleVirtualThread task; n < limit && (task = poll()) != null; n++) {
+            sink.accept(task);
+        }
+        return n;
+    }
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * 虚拟线程从载体上卸载后调用
+     * @param group 挂载时虚拟线程所属的调度组. 可复用的虚拟线程卸载时可能已经被回收, 其字段(调度组、截止时间、优先级)已被重置,
+     *              需要的信息应当在挂载前记下
+     * @return 是否有之前无法取出(例如受配额限制)、现在可以运行的虚拟线程, 需要唤醒空闲的载体
+     */
+    default boolean unmounted(SimpleVirtualThread task, SchedulingGroup group) {
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.management.ManagementFactory;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * 对比 {@link MpmcArrayQueue} 与 {@link ConcurrentLinkedQueue}、{@link LinkedTransferQueue}、{@link ArrayBlockingQueue}
+ * 作为运行队列时的吞吐量和分配量.
+ *  - 多个生产者并发入队同一个对象(排除元素本身的分配), 一个消费者出队, 与调度线程模式下的全局队列一致; 有界队列满时生产者、队列空时消费者让出 CPU 后重试, 避免在核数较少时空转到时间片用完.
+ *  - mpmc-array(drain) 的消费者通过 {@link MpmcArrayQueue#drain} 批量出队.
+ *  - 分配量通过 {@link com.sun.management.ThreadMXBean#getTotalThreadAllocatedBytes()} 统计, 包含所有线程.
+ * 运行参数: [operations=2000000] [maxProducers=64]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 02:10 </p>
+ */
+public class RunQueueBenchmark {
+    private static final int CAPACITY = 1 << 14;
+    private static final int DRAIN_BATCH = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int maxProducers = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        var mxBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] names = {"concurrent-linked", "linked-transfer", "array-blocking", "mpmc-array", "mpmc-array(drain)"};
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (int producers = 1; producers <= maxProducers; producers <<= 1) {
+                for (String name : names) {
+                    long bytes = mxBean.getTotalThreadAllocatedBytes();
+                    long elapsed = run(name, producers, operations);
+                    bytes = mxBean.getTotalThreadAllocatedBytes() - bytes;
+                    if (round > 0) {
+                        System.out.printf("[%s] producers: %d, %,.0f ops/s, %,d bytes/op%n",
+                                name, producers, operations * 1e9 / elapsed, bytes / operations);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long run(String name, int producers, int operations) throws InterruptedException {
+        Queue<Object> queue = switch (name) {
+            case "concurrent-linked" -> new ConcurrentLinkedQueue<>();
+            case "linked-transfer" -> new LinkedTransferQueue<>();
+            case "array-blocking" -> new ArrayBlockingQueue<>(CAPACITY);
+            default -> new MpmcArrayQueue<>(CAPACITY);
+        };
+        int perProducer = operations / producers;
+        int total = perProducer * producers;
+        var ready = new CountDownLatch(producers + 1);
+        var start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            Thread.ofPlatform().start(() -> {
+                Object item = new Object();
+                ready.countDown();
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(item)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        long[] received = new long[1];
+        Consumer<Object> sink = item -> received[0]++;
+        BooleanSupplier pollOnce = name.endsWith("(drain)")
+                ? () -> ((MpmcArrayQueue<Object>) queue).drain(sink, DRAIN_BATCH) > 0
+                : () -> {
+                    if (queue.poll() == null) {
+                        return false;
+                    }
+                    received[0]++;
+                    return true;
+                };
+        ready.countDown();
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        while (received[0] < total) {
+            if (!pollOnce.getAsBoolean()) {
+                Thread.yield();
+            }
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
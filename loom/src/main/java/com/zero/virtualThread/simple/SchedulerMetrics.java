@@ -0,0 +1,235 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 调度器的运行指标.
+ *  - 多个线程写入的计数使用分段计数器 {@link LongAdder}; 每个载体自己的挂载次数、运行时长以及提交到运行的延迟
+ *    记录在 {@link CarrierThread} 上, 只由该载体写入, 读取时再汇总.
+ *  - 延迟使用 {@link LatencyHistogram} 记录: 提交到运行的延迟按载体分开记录, 时间轮的到期延迟只由时间轮线程记录.
+ *  - 补偿载体退出时, 它的计数并入已退出载体的累计值({@link #retire}), 之后的快照不会丢失这部分挂载次数和延迟样本.
+ *  - 通过 {@link #snapshot()} 获取某一时刻的快照, 两个快照相减得到区间内的速率和利用率; 同时实现了 JMX 接口.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 20:40 </p>
+ */
+public class SchedulerMetrics implements SchedulerMetricsMXBean {
+    /// JMX 速率类属性的最小采样窗口
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final SimpleVirtualScheduler scheduler;
+    /// 提交次数
+    final LongAdder scheduled = new LongAdder();
+    /// park 次数
+    final LongAdder parks = new LongAdder();
+    /// park 时因 pinned 而无法让出的次数
+    final LongAdder pinned = new LongAdder();
+    /// 一次挂载超过时间片的次数, 以及在检查点被抢占的次数
+    final LongAdder overruns = new LongAdder();
+    final LongAdder preemptions = new LongAdder();
+    /// 时间轮上定时任务实际到期时间与预期到期时间的差值
+    final LatencyHistogram timerLateness = new LatencyHistogram();
+    /// 已退出的载体的挂载次数、按编号累计的运行时长以及提交到运行的延迟, 由 {@link #retire} 写入
+    private long retiredMounts;
+    private final long[] retiredBusyNanos;
+    private final LatencyHistogram retiredLatency = new LatencyHistogram();
+
+    /// JMX 速率类属性使用的上一个快照, 以及正在积累的当前窗口起点
+    private volatile Snapshot previous;
+    private volatile Snapshot current;
+
+    SchedulerMetrics(SimpleVirtualScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.retiredBusyNanos = new long[scheduler.carriers().length];
+        this.previous = this.current = snapshot();
+    }
+
+    /**
+     * 调度器指标快照, 计数均为累计值
+     * @param nanoTime 快照时间
+     * @param scheduled 提交次数
+     * @param dispatched 挂载次数
+     * @param parks park 次数
+     * @param pinned park 时因 pinned 而无法让出的次数
+     * @param overruns 一次挂载超过时间片的次数
+     * @param preemptions 在检查点被抢占的次数
+     * @param carrierBusyNanos 每个载体运行虚拟线程的累计时长, 按载体编号存放, 包括该编号上已退出的载体
+     * @param carriers 当前的载体数
+     * @param blockedCarriers 被阻塞(挂载时长超过阈值且载体线程处于阻塞/等待状态)的载体数
+     * @param compensations 累计增加的补偿载体数
+     * @param scheduleToRun 提交到开始运行的延迟分布(纳秒)
+     * @param timerLateness 时间轮到期延迟分布(纳秒)
+     */
+    public record Snapshot(long nanoTime, long scheduled, long dispatched, long parks, long pinned, long overruns, long preemptions, long[] carrierBusyNanos,
+                           int carriers, int blockedCarriers, long compensations, LatencyHistogram.Distribution scheduleToRun, LatencyHistogram.Distribution timerLateness) {
+
+        /// 已提交、尚未挂载的虚拟线程数
+        public long queueDepth() {
+            return Math.max(0, scheduled - dispatched);
+        }
+
+        /// 两个快照之间每秒挂载的次数
+        public double dispatchRate(Snapshot earlier) {
+            long elapsed = nanoTime - earlier.nanoTime;
+            return elapsed <= 0 ? 0 : (dispatched - earlier.dispatched) * 1e9 / elapsed;
+        }
+
+        /// 两个快照之间每个载体运行虚拟线程的时间占比
+        public double[] carrierUtilization(Snapshot earlier) {
+            long elapsed = nanoTime - earlier.nanoTime;
+            double[] utilization = new double[carrierBusyNanos.length];
+            for (int i = 0; i < utilization.length && elapsed > 0; i++) {
+                long before = i < earlier.carrierBusyNanos.length ? earlier.carrierBusyNanos[i] : 0;
+                utilization[i] = Math.clamp((carrierBusyNanos[i] - before) / (double) elapsed, 0.0, 1.0);
+            }
+            return utilization;
+        }
+    }
+
+    /**
+     * 获取当前指标的快照
+     */
+    public synchronized Snapshot snapshot() {
+        CarrierThread[] carriers = scheduler.carriers();
+        long[] busy = retiredBusyNanos.clone();
+        long dispatched = retiredMounts;
+        int live = 0;
+        LatencyHistogram[] latencies = new LatencyHistogram[carriers.length + 1];
+        latencies[carriers.length] = retiredLatency;
+        for (int i = 0; i < carriers.length; i++) {
+            CarrierThread carrier = carriers[i];
+            if (carrier != null) {
+                busy[i] += carrier.busyNanos;
+                dispatched += carrier.mounts;
+                latencies[i] = carrier.runLatency;
+                live++;
+            }
+        }
+        // 先读挂载次数再读提交次数, 避免出现挂载次数大于提交次数
+        return new Snapshot(System.nanoTime(), scheduled.sum(), dispatched, parks.sum(), pinned.sum(), overruns.sum(), preemptions.sum(), busy,
+                live, scheduler.blockedCarriers(), scheduler.compensations(), LatencyHistogram.distribution(latencies), LatencyHistogram.distribution(timerLateness));
+    }
+
+    /**
+     * 载体退出时在该载体上调用: 把它的计数并入已退出载体的累计值, 然后清空它的编号.
+     * 两步与 {@link #snapshot()} 在同一把锁内完成, 快照不会重复计算或遗漏这个载体.
+     */
+    synchronized void retire(CarrierThread[] carriers, int index) {
+        CarrierThread carrier = carriers[index];
+        if (carrier != null) {
+            retiredMounts += carrier.mounts;
+            retiredBusyNanos[index] += carrier.busyNanos;
+            retiredLatency.add(carrier.runLatency);
+        }
+        carriers[index] = null;
+    }
+
+    /**
+     * 返回与最新快照相隔至少一个采样窗口的旧快照, 以及最新快照
+     */
+    private Snapshot[] window() {
+        Snapshot now = snapshot();
+        Snapshot start = current;
+        if (now.nanoTime - start.nanoTime >= WINDOW_NANOS) {
+            previous = start;
+            current = now;
+        }
+        return new Snapshot[]{previous, now};
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return snapshot().queueDepth();
+    }
+
+    @Override
+    public long getScheduledCount() {
+        return scheduled.sum();
+    }
+
+    @Override
+    public long getDispatchedCount() {
+        return snapshot().dispatched();
+    }
+
+    @Override
+    public long getParkCount() {
+        return parks.sum();
+    }
+
+    @Override
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    @Override
+    public long getTimeSliceOverrunCount() {
+        return overruns.sum();
+    }
+
+    @Override
+    public long getPreemptionCount() {
+        return preemptions.sum();
+    }
+
+    @Override
+    public int getCarrierCount() {
+        return snapshot().carriers();
+    }
+
+    @Override
+    public int getBlockedCarrierCount() {
+        return scheduler.blockedCarriers();
+    }
+
+    @Override
+    public long getCompensationCount() {
+        return scheduler.compensations();
+    }
+
+    @Override
+    public double getDispatchRate() {
+        Snapshot[] window = window();
+        return window[1].dispatchRate(window[0]);
+    }
+
+    @Override
+    public double[] getCarrierUtilization() {
+        Snapshot[] window = window();
+        return window[1].carrierUtilization(window[0]);
+    }
+
+    @Override
+    public long getScheduleToRunP50Micros() {
+        return snapshot().scheduleToRun().p50() / 1000;
+    }
+
+    @Override
+    public long getScheduleToRunP99Micros() {
+        return snapshot().scheduleToRun().p99() / 1000;
+    }
+
+    @Override
+    public long getScheduleToRunP999Micros() {
+        return snapshot().scheduleToRun().p999() / 1000;
+    }
+
+    @Override
+    public long getTimerLatenessP50Micros() {
+        return timerLateness().p50() / 1000;
+    }
+
+    @Override
+    public long getTimerLatenessP99Micros() {
+        return timerLateness().p99() / 1000;
+    }
+
+    @Override
+    public long getTimerLatenessP999Micros() {
+        return timerLateness().p999() / 1000;
+    }
+
+    private LatencyHistogram.Distribution timerLateness() {
+        return LatencyHistogram.distribution(timerLateness);
+    }
+}
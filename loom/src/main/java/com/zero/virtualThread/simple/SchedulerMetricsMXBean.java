@@ -0,0 +1,60 @@
+package com.zero.virtualThread.simple;
+
+/**
+ * {@link SimpleVirtualScheduler} 的 JMX 接口, 注册在 com.zero.simple:type=SimpleVirtualScheduler,name=scheduler-N 下.
+ *  - 计数类属性从调度器启动开始累计, 速率与利用率为最近一个采样窗口(至少1秒)内的值.
+ *  - 延迟类属性单位为微秒.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 20:35 </p>
+ */
+public interface SchedulerMetricsMXBean {
+
+    /// 已提交、尚未挂载的虚拟线程数
+    long getQueueDepth();
+
+    /// 累计提交次数(包括唤醒后的重新提交)
+    long getScheduledCount();
+
+    /// 累计挂载次数
+    long getDispatchedCount();
+
+    /// 累计 park 次数
+    long getParkCount();
+
+    /// 累计因 pinned 而无法让出的 park 次数, 具体位置见 {@link PinningMonitor}
+    long getPinnedCount();
+
+    /// 累计一次挂载超过时间片的次数
+    long getTimeSliceOverrunCount();
+
+    /// 累计在 {@link SimpleVirtualThread#checkpoint()} 处被抢占的次数
+    long getPreemptionCount();
+
+    /// 当前的载体数, 包括补偿载体
+    int getCarrierCount();
+
+    /// 被阻塞(pinned 或阻塞调用导致一次挂载超过阈值, 且载体线程处于阻塞/等待状态)的载体数
+    int getBlockedCarrierCount();
+
+    /// 累计增加的补偿载体数
+    long getCompensationCount();
+
+    /// 每秒挂载次数
+    double getDispatchRate();
+
+    /// 每个载体线程处于运行虚拟线程状态的时间占比
+    double[] getCarrierUtilization();
+
+    long getScheduleToRunP50Micros();
+
+    long getScheduleToRunP99Micros();
+
+    long getScheduleToRunP999Micros();
+
+    long getTimerLatenessP50Micros();
+
+    long getTimerLatenessP99Micros();
+
+    long getTimerLatenessP999Micros();
+}
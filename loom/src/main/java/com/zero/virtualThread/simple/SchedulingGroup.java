@@ -0,0 +1,96 @@
+package com.zero.virtualThread.simple;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 调度组, 用于多租户之间的公平调度, 由 {@link FairRunQueue} 按权重轮流服务.
+ *  - weight: 每一轮可以挂载的次数, 权重越大分到的载体时间越多.
+ *  - maxConcurrency: 同时占用载体的虚拟线程数上限, 0 表示不限制. 达到上限时该组的任务留在队列中, 不影响其他组.
+ *  - 每个组单独记录排队数、正在运行数、挂载次数以及从提交到开始运行的延迟.
+ * 通过 {@link SimpleVirtualThread#setGroup} 指定, 虚拟线程中新提交的虚拟线程默认继承所在的组.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 00:20 </p>
+ */
+public final class SchedulingGroup {
+    private final String name;
+    private final int weight;
+    private final int maxConcurrency;
+
+    /// 以下调度状态由所属 FairRunQueue 的锁保护
+    final ArrayDeque<SimpleVirtualThread> queue = new ArrayDeque<>();
+    /// 本轮剩余的挂载次数
+    int deficit;
+    /// 是否在 FairRunQueue 的活跃列表中
+    boolean active;
+    /// 正在占用载体的虚拟线程数
+    volatile int running;
+    /// 是否已经登记到 FairRunQueue 的组列表中
+    boolean registered;
+
+    /// 指标
+    private volatile int queueDepth;
+    final LongAdder dispatched = new LongAdder();
+    final LatencyHistogram latency = new LatencyHistogram();
+
+    public SchedulingGroup(String name, int weight) {
+        this(name, weight, 0);
+    }
+
+    public SchedulingGroup(String name, int weight, int maxConcurrency) {
+        if (weight <= 0 || maxConcurrency < 0) {
+            throw new IllegalArgumentException("weight must be positive and maxConcurrency non-negative");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /// 持有锁时调用: 是否已经达到并发上限
+    boolean atQuota() {
+        return maxConcurrency > 0 && running >= maxConcurrency;
+    }
+
+    /// 持有锁时调用: 队列长度变化后更新指标
+    void updateQueueDepth() {
+        queueDepth = queue.size();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int weight() {
+        return weight;
+    }
+
+    public int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /// 等待运行的虚拟线程数
+    public int queueDepth() {
+        return queueDepth;
+    }
+
+    /// 正在占用载体的虚拟线程数
+    public int running() {
+        return running;
+    }
+
+    /// 累计挂载次数
+    public long dispatched() {
+        return dispatched.sum();
+    }
+
+    /// 从提交到开始运行的延迟分布(纳秒)
+    public LatencyHistogram.Distribution latency() {
+        return LatencyHistogram.distribution(latency);
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulingGroup[" + name + ", weight=" + weight + "]";
+    }
+}
@@ -0,0 +1,164 @@
+package com.zero.virtualThread.simple;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 基于 JDK {@link Selector} 的 IO 轮询器, 由 {@link SimpleVirtualScheduler} 持有.
+ *  - 虚拟线程在通道暂时不可读/写时登记感兴趣的事件并让出载体, 由轮询线程在通道就绪后将其重新交给调度器.
+ *  - 事件是一次性的: 就绪后即取消对应的兴趣, 虚拟线程下次等待时再重新登记.
+ *  - 对 Selector 的所有操作都在轮询线程中完成, 其他线程只负责入队 + wakeup.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 14:30 </p>
+ */
+public class SelectorPoller implements Poller {
+    private final SimpleVirtualScheduler scheduler;
+    private final Selector selector;
+    /// 等待登记到 Selector 上的请求
+    private final Queue<Registration> pending = new ConcurrentLinkedQueue<>();
+    /// 本轮就绪、需要重新调度的虚拟线程
+    private final List<SimpleVirtualThread> ready = new ArrayList<>();
+    private final Thread poller;
+    private volatile boolean running = true;
+
+    public SelectorPoller(SimpleVirtualScheduler scheduler) {
+        this.scheduler = scheduler;
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        poller = new Thread(this::runPoller, "simple-selector-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public void await(SelectableChannel channel, int ops) {
+        SimpleVirtualThread vt = SimpleVirtualThread.current();
+        if (vt == null) {
+            throw new IllegalStateException("not in a SimpleVirtualThread");
+        }
+        pending.add(new Registration(channel, ops, vt));
+        selector.wakeup();
+        SimpleVirtualThread.park();
+    }
+
+    private void runPoller() {
+        while (running) {
+            try {
+                for (Registration registration; (registration = pending.poll()) != null; ) {
+                    register(registration);
+                }
+                flushReady();
+                selector.select();
+                Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    SelectionKey key = iterator.next();
+                    iterator.remove();
+                    fire(key);
+                }
+                flushReady();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void register(Registration registration) {
+        SelectableChannel channel = registration.channel;
+        try {
+            SelectionKey key = channel.keyFor(selector);
+            Waiters waiters;
+            if (key == null) {
+                waiters = new Waiters();
+                key = channel.register(selector, registration.ops, waiters);
+            } else {
+                waiters = (Waiters) key.attachment();
+                key.interestOps(key.interestOps() | registration.ops);
+            }
+            if ((registration.ops & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+                waiters.reader = registration.thread;
+            }
+            if ((registration.ops & (SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT)) != 0) {
+                waiters.writer = registration.thread;
+            }
+        } catch (ClosedChannelException | CancelledKeyException e) {
+            // 通道已关闭，直接唤醒虚拟线程，由它在重试IO时得到异常
+            wake(registration.thread);
+        }
+    }
+
+    /**
+     * 唤醒就绪事件上等待的虚拟线程，并取消这些事件的兴趣
+     */
+    private void fire(SelectionKey key) {
+        Waiters waiters = (Waiters) key.attachment();
+        if (!key.isValid()) {
+            wake(waiters.reader);
+            wake(waiters.writer);
+            waiters.reader = waiters.writer = null;
+            return;
+        }
+        int readyOps = key.readyOps();
+        int interestOps = key.interestOps();
+        if ((readyOps & (SelectionKey.OP_READ | SelectionKey.OP_ACCEPT)) != 0) {
+            wake(waiters.reader);
+            waiters.reader = null;
+            interestOps &= ~(SelectionKey.OP_READ | SelectionKey.OP_ACCEPT);
+        }
+        if ((readyOps & (SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT)) != 0) {
+            wake(waiters.writer);
+            waiters.writer = null;
+            interestOps &= ~(SelectionKey.OP_WRITE | SelectionKey.OP_CONNECT);
+        }
+        key.interestOps(interestOps);
+    }
+
+    /**
+     * 将本轮就绪的虚拟线程批量交还给调度器
+     */
+    private void flushReady() {
+        if (!ready.isEmpty()) {
+            scheduler.schedule(ready);
+            ready.clear();
+        }
+    }
+
+    private void wake(SimpleVirtualThread thread) {
+        if (thread != null && thread.makeRunnable()) {
+            ready.add(thread);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /// 一次等待请求
+    private record Registration(SelectableChannel channel, int ops, SimpleVirtualThread thread) {
+    }
+
+    /// 通道上等待读、写的虚拟线程, 作为 SelectionKey 的附件, 只由轮询线程读写
+    private static final class Waiters {
+        SimpleVirtualThread reader;
+        SimpleVirtualThread writer;
+    }
+}
@@ -0,0 +1,102 @@
+package com.zero.virtualThread.simple;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 key 分区的计数器: 对比 {@link ShardedScheduler} 每个分片持有自己的 {@link HashMap}(不加锁),
+ * 与工作窃取模式的 {@link SimpleVirtualScheduler} 上所有虚拟线程共享一个 {@link ConcurrentHashMap}.
+ *  - sharded: 每个分片上运行若干客户端虚拟线程, key 属于本分片时直接更新, 否则通过 {@link ShardedScheduler#send} 发给所属分片更新.
+ *  - shared: 同样数量的客户端虚拟线程直接对共享的 ConcurrentHashMap 执行 merge.
+ * 分片数/载体数与 JDK 虚拟线程调度器的并行度一致, 运行参数: [operations=2000000] [keys=10000] [clientsPerShard=4]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 03:10 </p>
+ */
+public class ShardedBenchmark {
+    private static final int SHARDS = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            long sharded = runSharded(operations, keys, clients);
+            long shared = runShared(operations, keys, clients);
+            if (round > 0) {
+                System.out.printf("[sharded] %d shards, %,.0f ops/s%n", SHARDS, operations * 1e9 / sharded);
+                System.out.printf("[shared] %d carriers, %,.0f ops/s%n", SHARDS, operations * 1e9 / shared);
+            }
+        }
+    }
+
+    private static long runSharded(int operations, int keys, int clients) throws InterruptedException {
+        try (var scheduler = new ShardedScheduler(SHARDS)) {
+            scheduler.run();
+            List<Map<Integer, Long>> partitions = new ArrayList<>(SHARDS);
+            for (int i = 0; i < SHARDS; i++) {
+                partitions.add(new HashMap<>());
+            }
+            LongAdder applied = new LongAdder();
+            int perClient = operations / (SHARDS * clients);
+            long start = System.nanoTime();
+            for (int s = 0; s < SHARDS; s++) {
+                int self = s;
+                for (int c = 0; c < clients; c++) {
+                    scheduler.submit(self, () -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < perClient; i++) {
+                            Integer key = random.nextInt(keys);
+                            int owner = scheduler.shardOf(key);
+                            if (owner == self) {
+                                partitions.get(self).merge(key, 1L, Long::sum);
+                                applied.increment();
+                            } else {
+                                scheduler.send(owner, () -> {
+                                    partitions.get(owner).merge(key, 1L, Long::sum);
+                                    applied.increment();
+                                });
+                            }
+                        }
+                    });
+                }
+            }
+            awaitApplied(applied, (long) perClient * SHARDS * clients);
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static long runShared(int operations, int keys, int clients) throws InterruptedException {
+        try (var scheduler = new SimpleVirtualScheduler(SHARDS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            Map<Integer, Long> map = new ConcurrentHashMap<>();
+            LongAdder applied = new LongAdder();
+            int perClient = operations / (SHARDS * clients);
+            long start = System.nanoTime();
+            for (int c = 0; c < SHARDS * clients; c++) {
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perClient; i++) {
+                        map.merge(random.nextInt(keys), 1L, Long::sum);
+                        applied.increment();
+                    }
+                }));
+            }
+            awaitApplied(applied, (long) perClient * SHARDS * clients);
+            return System.nanoTime() - start;
+        }
+    }
+
+    private static void awaitApplied(LongAdder applied, long expected) throws InterruptedException {
+        while (applied.sum() < expected) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * 每核一个分片(thread-per-core)的无共享调度器, 适合按 key 分区的内存状态.
+ *  - 由 N 个分片组成, 每个分片是一个只有一个载体的 {@link SimpleVirtualScheduler}, 有自己的运行队列、时间轮和 IO 轮询器,
+ *    分片内的虚拟线程总在同一个平台线程上运行, 访问本分片的状态不需要加锁.
+ *  - 任务按 key 的哈希值分配到分片 ({@link #submit(Object, Runnable)}), 同一个 key 总在同一个分片上执行.
+ *  - 分片之间通过消息通信 ({@link #send(Object, Runnable)}): 每对分片之间有一个 {@link SpscArrayQueue} 邮箱,
+ *    目标分片上的邮箱虚拟线程依次取出消息并在本分片上执行. 邮箱满时发送方的虚拟线程挂起, 直到目标分片取走消息.
+ *  - 不在分片载体上的线程以及消息处理过程中发出的消息进入目标分片的外部收件箱(无界), 避免分片之间互相等待造成死锁.
+ *  - 消息在邮箱虚拟线程中依次执行, 应当短小且不阻塞; 需要阻塞的工作应在处理时通过 {@link #submit(int, Runnable)} 另起虚拟线程.
+ *  - 可以指定每个分片的载体绑定的 CPU, 第 i 个分片绑定到 cpus[i % cpus.length].
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 03:00 </p>
+ */
+public class ShardedScheduler implements AutoCloseable {
+    /// 每对分片之间邮箱的容量
+    private static final int MAILBOX_CAPACITY = Integer.getInteger("simple.mailboxCapacity", 1024);
+    /// 邮箱虚拟线程每轮从每个邮箱最多取出的消息数, 避免某一个发送方独占
+    private static final int DRAIN_BATCH = 64;
+
+    private final Shard[] shards;
+    private volatile boolean running = false;
+
+    public ShardedScheduler(int shards) {
+        this(shards, new int[0]);
+    }
+
+    /**
+     * @param cpus 分片载体绑定的 CPU, 为空时不绑定
+     */
+    public ShardedScheduler(int shards, int... cpus) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards: " + shards);
+        }
+        this.shards = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            SimpleVirtualScheduler scheduler = new SimpleVirtualScheduler(1, SimpleVirtualScheduler.DispatchMode.WORK_STEALING);
+            // 每个分片只有一个载体, 显式指定亲和性, 不使用 -Dsimple.carrierAffinity 的默认值(否则所有分片都会绑定到同一个 CPU)
+            if (cpus.length > 0) {
+                scheduler.setCarrierAffinity(cpus[i % cpus.length]);
+            } else {
+                scheduler.setCarrierAffinity();
+            }
+            // 分片的载体在启动前记录分片编号, 发送消息时直接由当前载体找到发送方分片
+            scheduler.carriers()[0].shard = i;
+            this.shards[i] = new Shard(i, scheduler, shards);
+        }
+    }
+
+    /**
+     * 启动所有分片
+     */
+    public void run() {
+        running = true;
+        for (Shard shard : shards) {
+            shard.scheduler.run();
+            shard.mailboxLoop = shard.scheduler.schedule(new SimpleVirtualThread(shard::receive));
+        }
+    }
+
+    public int shards() {
+        return shards.length;
+    }
+
+    /**
+     * key 所属的分片
+     */
+    public int shardOf(Object key) {
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    /**
+     * 当前线程所在的分片
+     * @return 不在分片载体上时返回 -1
+     */
+    public int currentShard() {
+        CarrierThread carrier = CarrierThread.current();
+        if (carrier == null) {
+            return -1;
+        }
+        // 载体也可能属于另一个 ShardedScheduler
+        int index = carrier.shard;
+        return index >= 0 && index < shards.length && shards[index].scheduler == carrier.scheduler ? index : -1;
+    }
+
+    /**
+     * 分片对应的调度器, 可用于获取该分片的时间轮、IO 轮询器和运行指标
+     */
+    public SimpleVirtualScheduler shard(int index) {
+        return shards[index].scheduler;
+    }
+
+    /**
+     * 在 key 所属的分片上创建虚拟线程执行任务
+     */
+    public SimpleVirtualThread submit(Object key, Runnable task) {
+        return submit(shardOf(key), task);
+    }
+
+    public SimpleVirtualThread submit(int shard, Runnable task) {
+        return shards[shard].scheduler.schedule(new SimpleVirtualThread(task));
+    }
+
+    /**
+     * 向 key 所属的分片发送消息, 消息在该分片的邮箱虚拟线程中执行
+     */
+    public void send(Object key, Runnable message) {
+        send(shardOf(key), message);
+    }
+
+    /**
+     * 向分片发送消息. 同一个发送方分片发往同一个目标分片的消息按发送顺序执行.
+     */
+    public void send(int shard, Runnable message) {
+        if (!running) {
+            throw new IllegalStateException("scheduler is not running");
+        }
+        Shard target = shards[shard];
+        int from = currentShard();
+        // 不在分片载体上, 或者是消息处理过程中再发消息, 进入无界的外部收件箱
+        if (from < 0 || shards[from].delivering) {
+            target.external.add(message);
+        } else {
+            Mailbox mailbox = target.inboxes[from];
+            if (!mailbox.queue.offer(message)) {
+                // 邮箱已满, 挂起直到目标分片取走消息
+                mailbox.notFull.await(() -> mailbox.queue.offer(message));
+            }
+        }
+        // 邮箱只以 release 语义写入槽位, 之后的读取可能被重排到写入之前(StoreLoad), 需要全屏障.
+        // 与邮箱虚拟线程 "先入队等待再检查邮箱" 相对应, 两者至少有一方能看到对方的写入.
+        VarHandle.fullFence();
+        if (target.notEmpty.hasWaiters()) {
+            target.notEmpty.signal();
+        }
+    }
+
+    /**
+     * 停止所有分片: 邮箱虚拟线程处理完已收到的消息后退出, 然后关闭每个分片的调度器
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (Shard shard : shards) {
+            shard.notEmpty.signalAll();
+        }
+        for (Shard shard : shards) {
+            if (shard.mailboxLoop != null) {
+                shard.mailboxLoop.join(Duration.ofSeconds(5));
+            }
+            shard.scheduler.close();
+        }
+    }
+
+    /**
+     * 一对分片之间的邮箱: 发送方分片的载体是唯一的生产者, 目标分片的邮箱虚拟线程是唯一的消费者
+     */
+    private static final class Mailbox {
+        final SpscArrayQueue<Runnable> queue = new SpscArrayQueue<>(MAILBOX_CAPACITY);
+        /// 邮箱满时挂起的发送方
+        final WaitQueue notFull = new WaitQueue();
+    }
+
+    private final class Shard {
+        final int index;
+        final SimpleVirtualScheduler scheduler;
+        /// 来自每个分片的邮箱, 按发送方分片编号存放
+        final Mailbox[] inboxes;
+        /// 来自分片以外的线程以及消息处理过程中发出的消息
+        final Queue<Runnable> external = new ConcurrentLinkedQueue<>();
+        /// 所有邮箱都为空时, 邮箱虚拟线程在此等待
+        final WaitQueue notEmpty = new WaitQueue();
+        final Consumer<Runnable> deliver = this::deliver;
+        /// 邮箱虚拟线程是否正在执行消息, 只由本分片的载体读写
+        boolean delivering;
+        /// 邮箱虚拟线程
+        volatile SimpleVirtualThread mailboxLoop;
+
+        Shard(int index, SimpleVirtualScheduler scheduler, int shards) {
+            this.index = index;
+            this.scheduler = scheduler;
+            inboxes = new Mailbox[shards];
+            for (int i = 0; i < shards; i++) {
+                inboxes[i] = new Mailbox();
+            }
+        }
+
+        /**
+         * 邮箱虚拟线程: 轮流处理各个邮箱中的消息, 每个邮箱每轮最多 DRAIN_BATCH 条, 全部为空时挂起. 关闭时处理完已收到的消息后退出.
+         */
+        void receive() {
+            while (true) {
+                if (drain() > 0) {
+                    // 消息持续到达时, 超过时间片后让出载体给本分片的其他虚拟线程
+                    SimpleVirtualThread.checkpoint();
+                    continue;
+                }
+                if (!running) {
+                    return;
+                }
+                notEmpty.await(() -> !running || hasMessages());
+            }
+        }
+
+        private int drain() {
+            int n = 0;
+            for (Mailbox mailbox : inboxes) {
+                int drained = mailbox.queue.drain(deliver, DRAIN_BATCH);
+                if (drained > 0) {
+                    // 与 send 相同, 归还槽位之后、检查等待者之前需要全屏障
+                    VarHandle.fullFence();
+                    if (mailbox.notFull.hasWaiters()) {
+                        mailbox.notFull.signalAll();
+                    }
+                }
+                n += drained;
+            }
+            for (Runnable message; n < DRAIN_BATCH * inboxes.length + DRAIN_BATCH && (message = external.poll()) != null; n++) {
+                deliver(message);
+            }
+            return n;
+        }
+
+        private boolean hasMessages() {
+            for (Mailbox mailbox : inboxes) {
+                if (!mailbox.queue.isEmpty()) {
+                    return true;
+                }
+            }
+            return !external.isEmpty();
+        }
+
+        private void deliver(Runnable message) {
+            delivering = true;
+            try {
+                message.run();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            } finally {
+                delivering = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Go 风格的通道, 供 {@link SimpleVirtualThread} 之间通信.
+ *  - 三种容量: 无缓冲的同步通道({@link #rendezvous()}), 有界通道({@link #bounded(int)}), 无界通道({@link #unbounded()}).
+ *  - 发送/接收无法立即完成时让出载体, 对方到来时直接把元素交给等待者并唤醒它.
+ *  - 缓冲区为环形数组, 不需要等待时发送/接收只是在一把短自旋锁内读写数组, 不分配任何对象.
+ *  - {@link #select} 同时等待多个通道上的发送/接收, 最多完成其中一个.
+ *    等待时在每个通道上都挂一个等待节点, 所有节点共享一个 {@link Selection}, 对方必须先 CAS 认领才能完成交付.
+ *  - 关闭后不能再发送; 接收方取完缓冲区中剩余的元素后得到 null.
+ * 与 Go 一样不允许发送 null.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 23:30 </p>
+ */
+public class SimpleChannel<E> implements AutoCloseable {
+    private static final VarHandle LOCK;
+    static {
+        try {
+            LOCK = MethodHandles.lookup().findVarHandle(SimpleChannel.class, "lock", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    /// 自旋多少次后让出 CPU, 避免持有锁的线程被操作系统换出时空转
+    private static final int SPINS_BEFORE_YIELD = 64;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /// 通道编号, select 时按编号顺序加锁, 避免死锁
+    private final long id = SEQUENCE.getAndIncrement();
+    /// 容量, 0 表示同步通道, Integer.MAX_VALUE 表示无界
+    private final int capacity;
+    /// 以下字段都由 lock 保护
+    private Object[] ring;
+    private int head;
+    private int count;
+    private boolean closed;
+    private final ArrayDeque<Waiter> senders = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> receivers = new ArrayDeque<>();
+    /// 本次加锁期间认领的对方, 解锁后再唤醒, 避免被唤醒的一方立即在这把锁上自旋
+    private Selection pendingWake;
+    private volatile int lock;
+
+    private SimpleChannel(int capacity, int initialSize) {
+        this.capacity = capacity;
+        this.ring = new Object[initialSize];
+    }
+
+    /// 无缓冲的同步通道: 发送方一直等到接收方取走元素
+    public static <E> SimpleChannel<E> rendezvous() {
+        return new SimpleChannel<>(0, 0);
+    }
+
+    /// 有界通道: 缓冲区满时发送方等待
+    public static <E> SimpleChannel<E> bounded(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        return new SimpleChannel<>(capacity, capacity);
+    }
+
+    /// 无界通道: 发送永远不会等待, 缓冲区按需扩容
+    public static <E> SimpleChannel<E> unbounded() {
+        return new SimpleChannel<>(Integer.MAX_VALUE, 16);
+    }
+
+    /**
+     * 发送元素, 无法立即完成时阻塞当前虚拟线程
+     * @throws IllegalStateException 通道已关闭
+     */
+    public void send(E item) {
+        checkItem(item);
+        lock();
+        if (trySend(item)) {
+            unlockAndWake();
+            return;
+        }
+        Selection selection = new Selection();
+        senders.add(new Waiter(selection, 0, item));
+        unlock();
+        selection.await();
+        if (selection.closed) {
+            throw new IllegalStateException("channel closed");
+        }
+    }
+
+    /**
+     * 尝试发送元素, 不会阻塞
+     * @return 是否发送成功
+     * @throws IllegalStateException 通道已关闭
+     */
+    public boolean offer(E item) {
+        checkItem(item);
+        lock();
+        boolean sent = trySend(item);
+        unlockAndWake();
+        return sent;
+    }
+
+    /**
+     * 接收元素, 通道为空时阻塞当前虚拟线程
+     * @return 通道已关闭且没有剩余元素时返回 null
+     */
+    public E receive() {
+        lock();
+        E item = tryReceive();
+        if (item != null || closed) {
+            unlockAndWake();
+            return item;
+        }
+        Selection selection = new Selection();
+        receivers.add(new Waiter(selection, 0, null));
+        unlock();
+        selection.await();
+        return selection.item();
+    }
+
+    /**
+     * 尝试接收元素, 不会阻塞
+     * @return 没有可接收的元素时返回 null
+     */
+    public E poll() {
+        lock();
+        E item = tryReceive();
+        unlockAndWake();
+        return item;
+    }
+
+    /**
+     * 关闭通道, 唤醒所有等待者: 等待中的接收方得到 null, 等待中的发送方抛出异常
+     */
+    @Override
+    public void close() {
+        List<Selection> woken = new ArrayList<>();
+        lock();
+        if (closed) {
+            unlock();
+            return;
+        }
+        closed = true;
+        for (Waiter waiter; (waiter = receivers.poll()) != null || (waiter = senders.poll()) != null; ) {
+            if (waiter.selection.claim(waiter.index, null, true)) {
+                woken.add(waiter.selection);
+            }
+        }
+        unlock();
+        woken.forEach(Selection::wake);
+    }
+
+    public boolean isClosed() {
+        lock();
+        boolean result = closed;
+        unlock();
+        return result;
+    }
+
+    /**
+     * 接收分支, 用于 {@link #select}
+     */
+    public Case<E> receiveCase() {
+        return new Case<>(this, false, null);
+    }
+
+    /**
+     * 发送分支, 用于 {@link #select}
+     */
+    public Case<E> sendCase(E item) {
+        checkItem(item);
+        return new Case<>(this, true, item);
+    }
+
+    /**
+     * 同时等待多个分支, 完成其中一个后返回. 多个分支同时就绪时随机选择一个.
+     * @return 完成的分支下标, 接收到的元素通过 {@link Case#value()} 获取
+     * @throws IllegalStateException 完成的是发送分支且通道已关闭
+     */
+    public static int select(Case<?>... cases) {
+        return select(cases, true);
+    }
+
+    /**
+     * 与 {@link #select} 相同, 但没有分支就绪时立即返回 -1
+     */
+    public static int selectNow(Case<?>... cases) {
+        return select(cases, false);
+    }
+
+    private static int select(Case<?>[] cases, boolean block) {
+        SimpleChannel<?>[] channels = lockOrder(cases);
+        lockAll(channels);
+        // 随机起点, 避免总是优先完成前面的分支
+        int n = cases.length;
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int k = 0; k < n; k++) {
+            int i = (start + k) % n;
+            if (cases[i].poll()) {
+                unlockAll(channels);
+                return cases[i].complete(i);
+            }
+        }
+        if (!block) {
+            unlockAll(channels);
+            return -1;
+        }
+        Selection selection = new Selection();
+        Waiter[] waiters = new Waiter[n];
+        for (int i = 0; i < n; i++) {
+            waiters[i] = new Waiter(selection, i, cases[i].item);
+            cases[i].waiters().add(waiters[i]);
+        }
+        unlockAll(channels);
+        selection.await();
+        // 从其他通道上摘除未被选中的等待节点
+        lockAll(channels);
+        for (int i = 0; i < n; i++) {
+            cases[i].waiters().remove(waiters[i]);
+        }
+        unlockAll(channels);
+        Case<?> chosen = cases[selection.index];
+        chosen.value = selection.item;
+        chosen.closed = selection.closed;
+        return chosen.complete(selection.index);
+    }
+
+    /// 去重并按编号排序的通道
+    private static SimpleChannel<?>[] lockOrder(Case<?>[] cases) {
+        if (cases.length == 0) {
+            throw new IllegalArgumentException("no cases");
+        }
+        return Arrays.stream(cases).map(c -> c.channel).distinct()
+                .sorted(Comparator.comparingLong(c -> c.id)).toArray(SimpleChannel<?>[]::new);
+    }
+
+    private static void lockAll(SimpleChannel<?>[] channels) {
+        for (SimpleChannel<?> channel : channels) {
+            channel.lock();
+        }
+    }
+
+    private static void unlockAll(SimpleChannel<?>[] channels) {
+        for (SimpleChannel<?> channel : channels) {
+            channel.unlockAndWake();
+        }
+    }
+
+    private static void checkItem(Object item) {
+        if (item == null) {
+            throw new NullPointerException("channel item must not be null");
+        }
+    }
+
+    /**
+     * 在持有锁的情况下尝试发送: 优先交给等待中的接收方, 其次放入缓冲区
+     * @throws IllegalStateException 通道已关闭, 抛出前释放锁
+     */
+    private boolean trySend(Object item) {
+        if (closed) {
+            unlock();
+            throw new IllegalStateException("channel closed");
+        }
+        Waiter receiver = claimWaiter(receivers, item);
+        if (receiver != null) {
+            pendingWake = receiver.selection;
+            return true;
+        }
+        if (count < capacity) {
+            enqueue(item);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 在持有锁的情况下尝试接收: 优先从缓冲区取, 并把一个等待中的发送方的元素补进缓冲区; 其次直接从发送方取
+     * @return 没有可接收的元素时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private E tryReceive() {
+        Waiter sender = claimWaiter(senders, null);
+        if (count > 0) {
+            E item = (E) dequeue();
+            if (sender != null) {
+                enqueue(sender.item);
+                pendingWake = sender.selection;
+            }
+            return item;
+        }
+        if (sender != null) {
+            pendingWake = sender.selection;
+            return (E) sender.item;
+        }
+        return null;
+    }
+
+    /**
+     * 在持有锁时认领队列中第一个仍在等待的节点, 已被其他通道认领的节点直接丢弃
+     * @param item 交付给接收方的元素, 认领发送方时为 null
+     */
+    private static Waiter claimWaiter(ArrayDeque<Waiter> queue, Object item) {
+        for (Waiter waiter; (waiter = queue.poll()) != null; ) {
+            if (waiter.selection.claim(waiter.index, item, false)) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private void enqueue(Object item) {
+        if (count == ring.length) {
+            // 只有无界通道会走到这里
+            Object[] grown = new Object[ring.length * 2];
+            for (int i = 0; i < count; i++) {
+                grown[i] = ring[(head + i) % ring.length];
+            }
+            ring = grown;
+            head = 0;
+        }
+        ring[(head + count) % ring.length] = item;
+        count++;
+    }
+
+    private Object dequeue() {
+        Object item = ring[head];
+        ring[head] = null;
+        head = (head + 1) % ring.length;
+        count--;
+        return item;
+    }
+
+    private void lock() {
+        int spins = 0;
+        while (!LOCK.compareAndSet(this, 0, 1)) {
+            if (++spins < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void unlock() {
+        LOCK.setRelease(this, 0);
+    }
+
+    private void unlockAndWake() {
+        Selection wake = pendingWake;
+        pendingWake = null;
+        unlock();
+        if (wake != null) {
+            wake.wake();
+        }
+    }
+
+    /**
+     * select 的一个分支
+     */
+    public static final class Case<E> {
+        private final SimpleChannel<E> channel;
+        private final boolean send;
+        private final E item;
+        private Object value;
+        private boolean closed;
+
+        private Case(SimpleChannel<E> channel, boolean send, E item) {
+            this.channel = channel;
+            this.send = send;
+            this.item = item;
+        }
+
+        /// 接收分支完成后接收到的元素, 通道已关闭时为 null
+        @SuppressWarnings("unchecked")
+        public E value() {
+            return (E) value;
+        }
+
+        /// 分支是否因通道关闭而完成
+        public boolean closed() {
+            return closed;
+        }
+
+        private ArrayDeque<Waiter> waiters() {
+            return send ? channel.senders : channel.receivers;
+        }
+
+        /**
+         * 在持有所有通道锁的情况下检查分支能否立即完成, 能完成则直接完成
+         */
+        private boolean poll() {
+            value = null;
+            if (send) {
+                closed = channel.closed;
+                return closed || channel.trySend(item);
+            }
+            value = channel.tryReceive();
+            closed = value == null && channel.closed;
+            return value != null || closed;
+        }
+
+        private int complete(int index) {
+            if (send && closed) {
+                throw new IllegalStateException("channel closed");
+            }
+            return index;
+        }
+    }
+
+    /**
+     * 一次发送/接收/select 的等待状态, 由多个通道上的等待节点共享, 只能被认领一次
+     */
+    private static final class Selection {
+        private static final VarHandle CLAIMED;
+        static {
+            try {
+                CLAIMED = MethodHandles.lookup().findVarHandle(Selection.class, "claimed", boolean.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        /// 等待的虚拟线程, 在普通线程中等待时为 null
+        private final SimpleVirtualThread vt = SimpleVirtualThread.current();
+        private final Thread thread = vt == null ? Thread.currentThread() : null;
+        private volatile boolean claimed;
+        private volatile boolean done;
+        /// 完成的分支下标, 交付的元素, 是否因关闭而完成; 在认领后、唤醒前写入
+        private int index;
+        private Object item;
+        private boolean closed;
+
+        /**
+         * 认领并写入结果, 由对方在持有通道锁时调用
+         */
+        boolean claim(int index, Object item, boolean closed) {
+            if (!CLAIMED.compareAndSet(this, false, true)) {
+                return false;
+            }
+            this.index = index;
+            this.item = item;
+            this.closed = closed;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        <E> E item() {
+            return (E) item;
+        }
+
+        /**
+         * 阻塞直到被认领并唤醒
+         */
+        void await() {
+            while (!done) {
+                if (vt != null) {
+                    SimpleVirtualThread.park();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        }
+
+        /**
+         * 唤醒等待者, 在释放通道锁之后调用
+         */
+        void wake() {
+            done = true;
+            if (vt != null) {
+                vt.unpark();
+            } else {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * 挂在通道上的等待节点, 按引用比较, 以便 select 结束后从其他通道上摘除
+     */
+    private static final class Waiter {
+        private final Selection selection;
+        /// select 中的分支下标
+        private final int index;
+        /// 发送方要发送的元素
+        private final Object item;
+
+        Waiter(Selection selection, int index, Object item) {
+            this.selection = selection;
+            this.index = index;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zero.virtualThread.simple;
+
+/**
+ * 与 {@link SimpleMutex} 绑定的条件变量, 语义与 {@link java.util.concurrent.locks.Condition} 相同:
+ * 必须在持有锁时调用, await 期间释放锁, 被唤醒后重新加锁. 可能虚假唤醒, 调用方需要循环检查等待条件.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 22:55 </p>
+ */
+public class SimpleCondition {
+    private final SimpleMutex mutex;
+    private final WaitQueue waiters = new WaitQueue();
+
+    SimpleCondition(SimpleMutex mutex) {
+        this.mutex = mutex;
+    }
+
+    /**
+     * 释放锁并阻塞当前虚拟线程, 直到被 {@link #signal()} 或 {@link #signalAll()} 唤醒, 返回前重新加锁
+     */
+    public void await() {
+        checkHeld();
+        // 先入队再释放锁, 保证释放之后的 signal 一定能看到这个等待者
+        WaitQueue.Waiter waiter = waiters.enqueue();
+        mutex.unlock();
+        waiter.await();
+        mutex.lock();
+    }
+
+    /**
+     * 唤醒一个等待者
+     */
+    public void signal() {
+        checkHeld();
+        waiters.signal();
+    }
+
+    /**
+     * 唤醒所有等待者
+     */
+    public void signalAll() {
+        checkHeld();
+        waiters.signalAll();
+    }
+
+    private void checkHeld() {
+        if (!mutex.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import java.util.concurrent.TimeUnit;
 /**
  * 使用自定义的虚拟线程 + 调度器案例
  * 运行参数 --add-exports java.base/jdk.internal.vm=ALL-UNNAMED
+ * 加上 -Dsimple.trace=true 可以在结束时输出虚拟线程的挂载、让出、唤醒等追踪事件
  *
  * @author Zero.
  * <p> Created on 2025/7/12 23:37 </p>
@@ -40,5 +41,8 @@ public class SimpleExample {
 
             TimeUnit.SECONDS.sleep(10);
         }
+        if (Tracer.ENABLED) {
+            Tracer.drainTo(System.out);
+        }
     }
 }
@@ -0,0 +1,402 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 将 {@link SimpleVirtualScheduler} 包装为 {@link java.util.concurrent.ExecutorService}, 每个任务在一个
+ * {@link SimpleVirtualThread#pooled 可复用的虚拟线程} 中执行, 可以直接用于 {@link java.util.concurrent.CompletableFuture} 等 JDK API.
+ *  - 与 {@link Executors#newVirtualThreadPerTaskExecutor()} 一样不排队: 任务提交后立即交给调度器, 关闭后拒绝新任务.
+ *  - 返回的 {@link java.util.concurrent.Future} 通过 {@link WaitQueue} 等待, 在虚拟线程中调用 get、invokeAll、invokeAny、
+ *    awaitTermination 时只让出载体, 不会阻塞载体线程.
+ *  - {@link #shutdownNow()} 取消所有未结束的任务: 尚未开始的任务不再执行, 正在执行的虚拟线程被 {@link SimpleVirtualThread#cancel() 取消},
+ *    之后的定时等待抛出 {@link CancellationException}; 与 JDK 的 thread-per-task 执行器一样返回空列表.
+ *  - 在普通线程中等待时只在开始等待前检查一次中断.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 03:20 </p>
+ */
+public class SimpleExecutorService extends AbstractExecutorService {
+    private final SimpleVirtualScheduler scheduler;
+    /// 是否由本执行器创建, 是则在 close 时一并关闭
+    private final boolean ownsScheduler;
+    /// 已提交且尚未结束的任务
+    private final Set<Task<?>> tasks = ConcurrentHashMap.newKeySet();
+    /// 等待执行器终止的线程
+    private final WaitQueue termination = new WaitQueue();
+    private volatile boolean shutdown;
+    private volatile boolean terminated;
+
+    /**
+     * 使用已经启动的调度器, 关闭执行器时不会关闭调度器
+     */
+    public SimpleExecutorService(SimpleVirtualScheduler scheduler) {
+        this(scheduler, false);
+    }
+
+    /**
+     * 创建并启动一个工作窃取模式的调度器, 关闭执行器时一并关闭
+     * @param carriers 载体线程数
+     */
+    public SimpleExecutorService(int carriers) {
+        this(new SimpleVirtualScheduler(carriers, SimpleVirtualScheduler.DispatchMode.WORK_STEALING), true);
+        scheduler.run();
+    }
+
+    private SimpleExecutorService(SimpleVirtualScheduler scheduler, boolean ownsScheduler) {
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    public SimpleVirtualScheduler scheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Task<?> task = command instanceof Task<?> t && t.executor == this ? t : new Task<>(this, Executors.callable(command));
+        tasks.add(task);
+        // 先登记再检查, 与 shutdown "先设置标记再检查任务集合" 相对应, 避免漏掉终止
+        if (shutdown) {
+            done(task);
+            throw new RejectedExecutionException("executor has been shut down");
+        }
+        SimpleVirtualThread vt = SimpleVirtualThread.pooled(task);
+        task.thread = vt;
+        try {
+            scheduler.schedule(vt);
+        } catch (RuntimeException e) {
+            done(task);
+            throw e instanceof RejectedExecutionException rejected ? rejected : new RejectedExecutionException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new Task<>(this, callable);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new Task<>(this, Executors.callable(runnable, value));
+    }
+
+    /**
+     * 任意一个任务成功即返回其结果, 其余任务被取消.
+     * 不使用 {@link java.util.concurrent.ExecutorCompletionService}, 它的阻塞队列会阻塞载体线程.
+     */
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        try {
+            return doInvokeAny(tasks, false, 0);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return doInvokeAny(tasks, true, unit.toNanos(timeout));
+    }
+
+    private <T> T doInvokeAny(Collection<? extends Callable<T>> callables, boolean timed, long nanos)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        if (callables.isEmpty()) {
+            throw new IllegalArgumentException("no tasks");
+        }
+        checkInterrupted();
+        long deadline = System.nanoTime() + nanos;
+        // 所有任务结束时都唤醒这里的等待者
+        WaitQueue settled = new WaitQueue();
+        List<Task<T>> futures = new ArrayList<>(callables.size());
+        try {
+            for (Callable<T> callable : callables) {
+                Task<T> task = new Task<>(this, callable);
+                task.group = settled;
+                futures.add(task);
+                execute(task);
+            }
+            BooleanSupplier anySucceededOrAllDone = () -> {
+                boolean allDone = true;
+                for (Task<T> task : futures) {
+                    int s = task.state;
+                    if (s == Task.NORMAL) {
+                        return true;
+                    }
+                    allDone &= s >= Task.NORMAL;
+                }
+                return allDone;
+            };
+            if (timed) {
+                if (!settled.await(anySucceededOrAllDone, deadline - System.nanoTime())) {
+                    throw new TimeoutException();
+                }
+            } else {
+                settled.await(anySucceededOrAllDone);
+            }
+            for (Task<T> task : futures) {
+                if (task.state == Task.NORMAL) {
+                    return task.report(Task.NORMAL);
+                }
+            }
+            // 全部失败, 与 AbstractExecutorService 一样报告最后一个任务的异常
+            Task<T> last = futures.getLast();
+            return last.report(last.state);
+        } finally {
+            for (Task<T> task : futures) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 不再接收新任务, 已提交的任务继续执行
+     */
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        tryTerminate();
+    }
+
+    /**
+     * 不再接收新任务并取消所有未结束的任务
+     * @return 空列表, 任务提交后立即交给调度器, 没有排队中的任务
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        for (Task<?> task : tasks) {
+            task.cancel(true);
+        }
+        return List.of();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (terminated) {
+            return true;
+        }
+        checkInterrupted();
+        return termination.await(() -> terminated, unit.toNanos(timeout));
+    }
+
+    /**
+     * 关闭执行器并等待所有任务结束; 如果调度器由本执行器创建, 之后关闭调度器
+     */
+    @Override
+    public void close() {
+        super.close();
+        if (ownsScheduler) {
+            scheduler.close();
+        }
+    }
+
+    /**
+     * 任务的虚拟线程即将结束或任务未能提交时调用
+     */
+    private void done(Task<?> task) {
+        tasks.remove(task);
+        if (shutdown) {
+            tryTerminate();
+        }
+    }
+
+    private void tryTerminate() {
+        if (shutdown && tasks.isEmpty() && !terminated) {
+            terminated = true;
+            termination.signalAll();
+        }
+    }
+
+    /**
+     * 普通线程在开始等待前检查中断, 虚拟线程中的中断标记属于载体线程, 不检查
+     */
+    private static void checkInterrupted() throws InterruptedException {
+        if (CarrierThread.current() == null && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * 执行器中的任务及其结果.
+     * 状态: NEW -> RUNNING -> NORMAL/EXCEPTIONAL, NEW -> CANCELLED, RUNNING -> INTERRUPTING -> CANCELLED.
+     * 取消正在执行的任务时先进入 INTERRUPTING, 取消虚拟线程之后才改为 CANCELLED; 任务结束前通过 waiters 等待 INTERRUPTING 结束,
+     * 保证可复用的虚拟线程不会在被取消的过程中回收给下一个任务.
+     */
+    private static final class Task<V> implements RunnableFuture<V> {
+        static final int NEW = 0;
+        static final int RUNNING = 1;
+        static final int NORMAL = 2;
+        static final int EXCEPTIONAL = 3;
+        static final int CANCELLED = 4;
+        static final int INTERRUPTING = 5;
+        private static final VarHandle STATE;
+        private static final VarHandle WAITERS;
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                STATE = lookup.findVarHandle(Task.class, "state", int.class);
+                WAITERS = lookup.findVarHandle(Task.class, "waiters", WaitQueue.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final SimpleExecutorService executor;
+        private final Callable<V> callable;
+        /// 执行任务的虚拟线程, 提交时设置
+        SimpleVirtualThread thread;
+        /// invokeAny 的等待队列, 任务结束时唤醒
+        WaitQueue group;
+        /// 结果或异常, 在状态改为 NORMAL/EXCEPTIONAL 之前写入
+        private Object outcome;
+        volatile int state = NEW;
+        /// 调用 get 的等待者, 第一次需要等待时创建
+        private volatile WaitQueue waiters;
+
+        Task(SimpleExecutorService executor, Callable<V> callable) {
+            this.executor = executor;
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!STATE.compareAndSet(this, NEW, RUNNING)) {
+                    return;
+                }
+                try {
+                    set(NORMAL, callable.call());
+                } catch (Throwable e) {
+                    set(EXCEPTIONAL, e);
+                }
+            } finally {
+                // 正在被取消, 等取消方用完虚拟线程再结束, 取消方改为 CANCELLED 后通过 finishCompletion 唤醒
+                if (state == INTERRUPTING) {
+                    waiters().await(() -> state != INTERRUPTING);
+                }
+                thread = null;
+                executor.done(this);
+            }
+        }
+
+        private void set(int s, Object result) {
+            outcome = result;
+            if (STATE.compareAndSet(this, RUNNING, s)) {
+                finishCompletion();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (STATE.compareAndSet(this, NEW, CANCELLED)) {
+                finishCompletion();
+                return true;
+            }
+            if (!STATE.compareAndSet(this, RUNNING, mayInterruptIfRunning ? INTERRUPTING : CANCELLED)) {
+                return false;
+            }
+            if (mayInterruptIfRunning) {
+                try {
+                    thread.cancel();
+                } finally {
+                    state = CANCELLED;
+                }
+            }
+            finishCompletion();
+            return true;
+        }
+
+        private void finishCompletion() {
+            WaitQueue queue = waiters;
+            if (queue != null) {
+                queue.signalAll();
+            }
+            if (group != null) {
+                group.signalAll();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state >= CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state >= NORMAL;
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            int s = state;
+            if (s < NORMAL) {
+                checkInterrupted();
+                waiters().await(this::isDone);
+                s = state;
+            }
+            return report(s);
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            int s = state;
+            if (s < NORMAL) {
+                checkInterrupted();
+                if (!waiters().await(this::isDone, unit.toNanos(timeout))) {
+                    throw new TimeoutException();
+                }
+                s = state;
+            }
+            return report(s);
+        }
+
+        private WaitQueue waiters() {
+            WaitQueue queue = waiters;
+            if (queue == null) {
+                queue = new WaitQueue();
+                if (!WAITERS.compareAndSet(this, null, queue)) {
+                    queue = waiters;
+                }
+            }
+            return queue;
+        }
+
+        @SuppressWarnings("unchecked")
+        V report(int s) throws ExecutionException {
+            if (s == NORMAL) {
+                return (V) outcome;
+            }
+            if (s == EXCEPTIONAL) {
+                throw new ExecutionException((Throwable) outcome);
+            }
+            throw new CancellationException();
+        }
+    }
+}
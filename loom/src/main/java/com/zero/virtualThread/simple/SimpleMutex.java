@@ -0,0 +1,85 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 不可重入的互斥锁, 等待时让出载体而不是阻塞载体线程.
+ *  - 无竞争时加锁、解锁都只有一次 CAS / volatile 写.
+ *  - 竞争时进入 {@link WaitQueue} 等待, 解锁时唤醒一个等待者, 被唤醒的虚拟线程经由调度器重新调度后再次尝试加锁.
+ *    允许新来的线程插队, 以吞吐量优先.
+ *  - 也可以在普通线程中使用, 此时退化为 LockSupport.park.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 22:45 </p>
+ */
+public class SimpleMutex {
+    private static final VarHandle STATE;
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(SimpleMutex.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final WaitQueue waiters = new WaitQueue();
+    /// 0: 未加锁, 1: 已加锁
+    private volatile int state;
+    /// 持有锁的虚拟线程或普通线程
+    private Object owner;
+
+    /**
+     * 加锁, 锁已被持有时阻塞当前虚拟线程
+     */
+    public void lock() {
+        if (!tryLock()) {
+            waiters.await(this::tryLock);
+        }
+    }
+
+    /**
+     * 尝试加锁, 不会阻塞
+     */
+    public boolean tryLock() {
+        if (STATE.compareAndSet(this, 0, 1)) {
+            owner = currentOwner();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 解锁, 并唤醒一个等待者
+     * @throws IllegalMonitorStateException 当前线程没有持有锁
+     */
+    public void unlock() {
+        if (!isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException();
+        }
+        owner = null;
+        state = 0;
+        if (waiters.hasWaiters()) {
+            waiters.signal();
+        }
+    }
+
+    /**
+     * 当前虚拟线程(或普通线程)是否持有锁
+     */
+    public boolean isHeldByCurrentThread() {
+        return state == 1 && owner == currentOwner();
+    }
+
+    /**
+     * 创建与该锁绑定的条件变量
+     */
+    public SimpleCondition newCondition() {
+        return new SimpleCondition(this);
+    }
+
+    private static Object currentOwner() {
+        SimpleVirtualThread vt = SimpleVirtualThread.current();
+        return vt != null ? vt : Thread.currentThread();
+    }
+}
@@ -0,0 +1,68 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 计数信号量, 许可不足时让出载体而不是阻塞载体线程.
+ *  - 许可充足时获取、释放都只有 CAS.
+ *  - 许可不足时进入 {@link WaitQueue} 等待, 每次释放唤醒一个等待者. 允许插队.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 23:00 </p>
+ */
+public class SimpleSemaphore {
+    private static final VarHandle PERMITS;
+    static {
+        try {
+            PERMITS = MethodHandles.lookup().findVarHandle(SimpleSemaphore.class, "permits", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final WaitQueue waiters = new WaitQueue();
+    private volatile int permits;
+
+    public SimpleSemaphore(int permits) {
+        this.permits = permits;
+    }
+
+    /**
+     * 获取一个许可, 没有许可时阻塞当前虚拟线程
+     */
+    public void acquire() {
+        if (!tryAcquire()) {
+            waiters.await(this::tryAcquire);
+        }
+    }
+
+    /**
+     * 尝试获取一个许可, 不会阻塞
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int available = permits;
+            if (available <= 0) {
+                return false;
+            }
+            if (PERMITS.compareAndSet(this, available, available - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还一个许可, 并唤醒一个等待者
+     */
+    public void release() {
+        PERMITS.getAndAdd(this, 1);
+        if (waiters.hasWaiters()) {
+            waiters.signal();
+        }
+    }
+
+    public int availablePermits() {
+        return permits;
+    }
+}
@@ -0,0 +1,61 @@
+package com.zero.virtualThread.simple;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * 供 {@link SimpleVirtualThread} 使用的 TCP 服务端.
+ *  - 没有待接受的连接时让出载体, 由调度器的 {@link Poller} 在就绪后唤醒.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 15:06 </p>
+ */
+public class SimpleServerSocket implements AutoCloseable {
+    private final ServerSocketChannel channel;
+
+    private SimpleServerSocket(ServerSocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 绑定并监听本地地址
+     * @param local 本地地址
+     * @param backlog 等待接受的连接队列长度
+     */
+    public static SimpleServerSocket bind(SocketAddress local, int backlog) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.bind(local, backlog);
+            return new SimpleServerSocket(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 接受一个连接，没有新连接时阻塞当前虚拟线程
+     */
+    public SimpleSocket accept() throws IOException {
+        while (true) {
+            SocketChannel socket = channel.accept();
+            if (socket != null) {
+                return new SimpleSocket(socket);
+            }
+            SimpleSocket.poller().await(channel, SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    public SocketAddress localAddress() throws IOException {
+        return channel.getLocalAddress();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,107 @@
+package com.zero.virtualThread.simple;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * 供 {@link SimpleVirtualThread} 使用的 TCP 连接.
+ *  - 底层通道为非阻塞模式, 读写暂时无法进行时让出载体, 由调度器的 {@link Poller} 在就绪后唤醒.
+ *  - 所有方法都必须在 SimpleVirtualThread 中调用.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 14:52 </p>
+ */
+public class SimpleSocket implements AutoCloseable {
+    private final SocketChannel channel;
+
+    SimpleSocket(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        channel.configureBlocking(false);
+    }
+
+    /**
+     * 连接远程地址
+     * @param remote 远程地址
+     */
+    public static SimpleSocket connect(SocketAddress remote) throws IOException {
+        return connect(null, remote);
+    }
+
+    /**
+     * 绑定本地地址后连接远程地址
+     * @param local 本地地址, 为 null 时由系统分配
+     * @param remote 远程地址
+     */
+    public static SimpleSocket connect(InetSocketAddress local, SocketAddress remote) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            var socket = new SimpleSocket(channel);
+            if (local != null) {
+                channel.bind(local);
+            }
+            if (!channel.connect(remote)) {
+                while (!channel.finishConnect()) {
+                    poller().await(channel, SelectionKey.OP_CONNECT);
+                }
+            }
+            return socket;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取数据，没有数据可读时阻塞当前虚拟线程
+     * @param dst 目标缓冲区
+     * @return 读取的字节数, 连接关闭时返回 -1
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        while (true) {
+            int n = channel.read(dst);
+            if (n != 0 || !dst.hasRemaining()) {
+                return n;
+            }
+            poller().await(channel, SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * 写出缓冲区中的全部数据，发送缓冲区已满时阻塞当前虚拟线程
+     * @param src 源缓冲区
+     * @return 写出的字节数
+     */
+    public int write(ByteBuffer src) throws IOException {
+        int total = 0;
+        while (src.hasRemaining()) {
+            int n = channel.write(src);
+            if (n == 0) {
+                poller().await(channel, SelectionKey.OP_WRITE);
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    public SocketChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /// 当前虚拟线程所属调度器的轮询器
+    static Poller poller() {
+        SimpleVirtualThread vt = SimpleVirtualThread.current();
+        if (vt == null) {
+            throw new IllegalStateException("not in a SimpleVirtualThread");
+        }
+        return vt.scheduler.poller();
+    }
+}
@@ -1,12 +1,28 @@
 package com.zero.virtualThread.simple;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 自定义虚拟线程调度器. 用于调度{@link SimpleVirtualThread}
+ *  - 运行指标通过 {@link #metrics()} 获取, 运行期间同时注册为 JMX MBean.
+ *  - {@link #shutdownGracefully} 用于滚动重启: 不再接收外部提交的新任务, 等待可运行的以及定时等待中的虚拟线程执行完毕,
+ *    超时后取消剩余的定时等待, 最后报告仍未结束的虚拟线程数. 已有任务派生的子任务仍然可以提交, 它们属于正在处理的请求.
+ *  - 协作式抢占: 一次挂载超过时间片(-Dsimple.timeSliceMillis, 默认10ms, 0 表示关闭)时由 {@link PreemptionWatchdog} 标记,
+ *    虚拟线程在下一个 {@link SimpleVirtualThread#checkpoint()} 让出并重新进入全局队列.
+ *  - 工作窃取模式下, 虚拟线程唤醒的另一个虚拟线程进入当前载体的 runNext 槽位, 在唤醒方卸载后紧接着运行(-Dsimple.runNext=false 关闭);
+ *    连续接力超过16次后排到本地队列末尾.
+ *  - 载体线程可以通过 {@link #setCarrierAffinity} 或 -Dsimple.carrierAffinity 绑定到指定的 CPU, 避免载体在核之间迁移.
+ *  - 可以指定全局运行队列 {@link RunQueue}, 例如按调度组加权公平的 {@link FairRunQueue}, 最早截止时间优先的 {@link DeadlineRunQueue},
+ *    此时所有载体共用这一个队列.
  *
  * @author Zero.
  * <p> Created on 2025/7/12 23:39 </p>
@@ -14,30 +30,292 @@ import java.util.concurrent.Executors;
 public class SimpleVirtualScheduler implements Runnable, AutoCloseable {
     /// 是否处于运行中
     private volatile boolean running = false;
+    /// 是否已经开始关闭, 不再接收外部提交的新任务
+    private volatile boolean shutdown = false;
     /// 每个平台线程当前正在运行的虚拟线程.
     public static final ScopedValue<SimpleVirtualThread> CURRENT_VT = ScopedValue.newInstance();
 
+    /// 自旋次数的上下限，自旋阶段在两者之间自适应调整
+    private static final int MIN_SPINS = 1 << 4;
+    private static final int MAX_SPINS = 1 << 14;
 
-    /// 平台线程池，实际的执行单元
-    private final ExecutorService executor;
-    /// 虚拟线程队列，存储待执行的虚拟线程
-    private final Queue<SimpleVirtualThread> tasks = new ConcurrentLinkedQueue<>();
+    /// 调度线程模式下载体数的上限(包括补偿载体), 与 JDK 的 jdk.virtualThreadScheduler.maxPoolSize 对应
+    private static final int MAX_POOL_SIZE = Integer.getInteger("simple.maxPoolSize", 256);
+    /// 一次挂载超过该时长的载体被视为阻塞, 由载体池进行补偿
+    private static final long BLOCKED_THRESHOLD_NANOS = Long.getLong("simple.blockedThresholdMillis", 20) * 1_000_000;
+    /// 时间片, 0 表示不启用抢占
+    private static final long TIME_SLICE_NANOS = Long.getLong("simple.timeSliceMillis", 10) * 1_000_000;
+    /// 工作窃取模式下载体一次从全局队列取走的最大任务数
+    private static final int GLOBAL_BATCH = 32;
+    /// 工作窃取模式下载体每取多少次任务优先检查一次全局队列
+    private static final int GLOBAL_CHECK_INTERVAL = 61;
+    /// 连续从 runNext 取任务的上限, 超过后该任务排到本地队列末尾, 避免来回唤醒的虚拟线程饿死排队的任务
+    private static final int RUN_NEXT_LIMIT = 16;
+    /// 载体的当前挂载超过该时长后, 其他载体才可以窃取它的 runNext
+    private static final long RUN_NEXT_STEAL_NANOS = 50_000;
+    /// 优雅关闭时, 取消定时等待之后再等待虚拟线程退出的时长
+    private static final Duration CANCEL_GRACE = Duration.ofMillis(100);
+
+    /// 平台线程池，实际的执行单元，载体被阻塞时会临时扩容 (工作窃取模式下为 null)
+    private final CarrierPool executor;
+    /// 虚拟线程队列，存储待执行的虚拟线程. 工作窃取模式下仅用于接收来自载体以外线程的任务.
+    private final RunQueue tasks;
+    /// 是否所有载体共用全局运行队列(指定了 RunQueue 时), 不使用本地队列和工作窃取
+    private final boolean shared;
+    /// 调度循环在队列为空时的等待方式
+    private final DispatchMode mode;
+    /// 调度器编号, 用于区分 JMX 中的多个调度器
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    /// 所有载体线程, 按编号存放. 非工作窃取模式下由线程池按需创建和回收, 空位为 null.
+    private final CarrierThread[] carriers;
+    /// 工作窃取模式下处于空闲(park)状态的载体数量
+    private final AtomicInteger idleCarriers = new AtomicInteger();
+    /// 已提交且尚未结束的虚拟线程数, 包括排队、运行和挂起中的
+    private final AtomicLong live = new AtomicLong();
+
+    /// 时间轮，负责所有虚拟线程的定时等待，首次使用时创建
+    private volatile TimingWheel timer;
+    /// IO 轮询器，负责所有虚拟线程的网络等待，首次使用时创建
+    private volatile Poller poller;
+    /// io_uring 轮询器，负责所有虚拟线程的文件读取，首次使用时创建
+    private volatile IoUringPoller ioUring;
+
+    /// 运行调度循环的线程
+    private volatile Thread dispatcher;
+    /// 调度线程是否已经(或即将) park, 用于避免每次 schedule 都执行 unpark
+    private volatile boolean parked = false;
+    /// 当前的自旋次数, 仅由调度线程读写
+    private int spins = MIN_SPINS;
+
+    /// 虚拟线程 park 时无法让出的处理方式, 默认值来自 -Dsimple.pinnedPolicy=offload|fail-fast
+    private volatile PinnedPolicy pinnedPolicy =
+            "fail-fast".equals(System.getProperty("simple.pinnedPolicy")) ? PinnedPolicy.FAIL_FAST : PinnedPolicy.OFFLOAD;
+
+    /// 是否启用 runNext 槽位, 默认值来自 -Dsimple.runNext
+    private volatile boolean runNextEnabled = !"false".equals(System.getProperty("simple.runNext"));
+
+    /// 载体绑定的 CPU, 第 i 个载体绑定到 carrierCpus[i % length], null 表示不绑定. 默认值来自 -Dsimple.carrierAffinity
+    private volatile int[] carrierCpus = defaultCarrierCpus();
+
+    /// 时间片看门狗, 调度器启动时创建
+    private PreemptionWatchdog watchdog;
+
+    /// 运行指标
+    private final SchedulerMetrics metrics;
+    private final ObjectName objectName;
 
     public SimpleVirtualScheduler(int threads) {
-        executor = Executors.newFixedThreadPool(threads);
+        this(threads, DispatchMode.PARK);
+    }
+
+    public SimpleVirtualScheduler(int threads, DispatchMode mode) {
+        this(threads, mode, new FifoRunQueue(), false);
+    }
+
+    /**
+     * 使用指定的运行队列: threads 个固定的载体线程都从该队列中取任务, 由队列决定执行顺序
+     */
+    public SimpleVirtualScheduler(int threads, RunQueue runQueue) {
+        this(threads, DispatchMode.WORK_STEALING, runQueue, true);
+    }
+
+    private SimpleVirtualScheduler(int threads, DispatchMode mode, RunQueue runQueue, boolean shared) {
+        this.mode = mode;
+        this.tasks = runQueue;
+        this.shared = shared;
+        if (mode == DispatchMode.WORK_STEALING) {
+            executor = null;
+            carriers = new CarrierThread[threads];
+            for (int i = 0; i < threads; i++) {
+                carriers[i] = new CarrierThread(this, i, () -> runCarrier(CarrierThread.current()));
+            }
+        } else {
+            carriers = new CarrierThread[Math.max(threads, MAX_POOL_SIZE)];
+            executor = new CarrierPool(this, threads, carriers, BLOCKED_THRESHOLD_NANOS);
+        }
+        metrics = new SchedulerMetrics(this);
+        try {
+            objectName = new ObjectName("com.zero.simple:type=SimpleVirtualScheduler,name=scheduler-" + SEQUENCE.getAndIncrement());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
      * 启动调度器，将可执行的虚拟线程调度至平台线程进行执行
+     * 工作窃取模式下没有调度线程，该方法只负责启动所有载体线程，随后立即返回.
      */
     @Override
     public void run() {
         running = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("failed to register " + objectName, e);
+        }
+        if (TIME_SLICE_NANOS > 0) {
+            watchdog = new PreemptionWatchdog(this, TIME_SLICE_NANOS);
+        }
+        if (mode == DispatchMode.WORK_STEALING) {
+            for (CarrierThread carrier : carriers) {
+                carrier.start();
+            }
+            return;
+        }
+        dispatcher = Thread.currentThread();
         while (running){
-            if (!tasks.isEmpty()){
-                // 从任务队列获取任务，调度到平台线程进行执行.
-                SimpleVirtualThread task = tasks.poll();
-                executor.execute(()-> ScopedValue.where(CURRENT_VT, task).run(task));
+            // 从任务队列获取任务，调度到平台线程进行执行.
+            SimpleVirtualThread task = tasks.poll();
+            if (task != null){
+                executor.execute(()-> mount(task));
+            } else if (mode == DispatchMode.PARK) {
+                awaitTasks();
+            }
+        }
+    }
+
+    /**
+     * 在当前载体线程上运行虚拟线程
+     */
+    private void mount(SimpleVirtualThread task) {
+        CarrierThread carrier = CarrierThread.current();
+        long start = System.nanoTime();
+        carrier.runLatency.record(start - task.scheduledAt);
+        carrier.mounts++;
+        carrier.mountedAt = start;
+        // 可复用的虚拟线程在任务结束时就被回收、重置调度组, 需要在挂载前记下
+        SchedulingGroup group = task.group;
+        try {
+            ScopedValue.where(CURRENT_VT, task).run(task);
+        } finally {
+            carrier.mountedAt = 0;
+            carrier.busyNanos += System.nanoTime() - start;
+            // 运行队列中有因配额而等待的任务变为可运行
+            if (tasks.unmounted(task, group)) {
+                signalWork();
+            }
+        }
+    }
+
+    /**
+     * 队列为空时，先自旋等待一小段时间，仍然没有任务则 park 调度线程，直到 {@link #schedule} 将其唤醒.
+     * 自旋期间等到了任务则加倍下次的自旋次数，否则减半，让自旋时长贴合任务的到达间隔.
+     */
+    private void awaitTasks() {
+        for (int i = 0; i < spins; i++) {
+            if (!tasks.isEmpty()) {
+                spins = Math.min(spins << 1, MAX_SPINS);
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        spins = Math.max(spins >>> 1, MIN_SPINS);
+        // 先发布 parked 再检查队列, 与 schedule 中 "先入队再检查 parked" 相对应, 两者至少有一方能看到对方的写入.
+        parked = true;
+        if (running && tasks.isEmpty()) {
+            LockSupport.park(this);
+        }
+        parked = false;
+    }
+
+    /**
+     * 工作窃取模式下每个载体线程的执行循环:
+     * 本地队列 -> 全局队列 -> 窃取其他载体的队列，都没有任务时 park，等待 {@link #schedule} 唤醒.
+     */
+    private void runCarrier(CarrierThread self) {
+        while (running) {
+            SimpleVirtualThread task = findTask(self);
+            if (task == null) {
+                // 先登记为空闲再复查一遍所有队列，与 signalWork 中 "先入队再检查空闲数" 相对应.
+                idleCarriers.incrementAndGet();
+                self.parked = true;
+                task = findTask(self);
+                if (task == null && running) {
+                    LockSupport.park(this);
+                }
+                self.parked = false;
+                idleCarriers.decrementAndGet();
+                if (task == null) {
+                    continue;
+                }
+            }
+            try {
+                mount(task);
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 为载体查找下一个可执行的虚拟线程
+     */
+    private SimpleVirtualThread findTask(CarrierThread self) {
+        if (shared) {
+            return tasks.poll();
+        }
+        SimpleVirtualThread task;
+        // 每隔一段时间先检查一次全局队列, 避免本地队列一直不空时全局队列中的任务(例如被抢占后重新入队的)饿死
+        if (++self.ticks % GLOBAL_CHECK_INTERVAL == 0 && (task = tasks.poll()) != null) {
+            return task;
+        }
+        task = self.runNext;
+        if (task != null && (task = (SimpleVirtualThread) CarrierThread.RUN_NEXT.getAndSet(self, null)) != null) {
+            if (++self.runNextStreak <= RUN_NEXT_LIMIT) {
+                return task;
+            }
+            self.runQueue.offerLast(task);
+        }
+        self.runNextStreak = 0;
+        task = self.runQueue.pollFirst();
+        if (task != null) {
+            return task;
+        }
+        // 从全局队列一次取走一批(按载体数平摊, 最多 GLOBAL_BATCH 个), 多余的放入本地队列, 空闲的载体仍可以窃取
+        if (tasks.drain(self.localSink, Math.min(tasks.size() / carriers.length + 1, GLOBAL_BATCH)) > 0) {
+            return self.runQueue.pollFirst();
+        }
+        // 从随机位置开始，依次尝试窃取其他载体队列尾部的任务
+        int n = carriers.length;
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            CarrierThread victim = carriers[(start + i) % n];
+            if (victim != self && ((task = victim.runQueue.pollLast()) != null || (task = stealRunNext(victim)) != null)) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 窃取其他载体的 runNext: 只在它的当前挂载已经运行了一段时间时窃取, 此时唤醒方短期内不会让出载体
+     */
+    private static SimpleVirtualThread stealRunNext(CarrierThread victim) {
+        SimpleVirtualThread task = victim.runNext;
+        long mountedAt = victim.mountedAt;
+        if (task == null || mountedAt == 0 || System.nanoTime() - mountedAt < RUN_NEXT_STEAL_NANOS) {
+            return null;
+        }
+        return CarrierThread.RUN_NEXT.compareAndSet(victim, task, null) ? task : null;
+    }
+
+    /**
+     * 工作窃取模式下，如果有空闲的载体则唤醒其中一个来执行(或窃取)新任务
+     */
+    void signalWork() {
+        if (idleCarriers.get() == 0) {
+            return;
+        }
+        int n = carriers.length;
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            CarrierThread carrier = carriers[(start + i) % n];
+            if (carrier.parked) {
+                // 提前清除标记，使连续的 signalWork 唤醒不同的载体
+                carrier.parked = false;
+                LockSupport.unpark(carrier);
+                return;
             }
         }
     }
@@ -45,12 +323,353 @@ public class SimpleVirtualScheduler implements Runnable, AutoCloseable {
     /**
      * 向调度器添加虚拟线程
      * @param task 虚拟线程
+     * @return 虚拟线程本身, 作为任务的句柄用于 {@link SimpleVirtualThread#join()} 等待结束
      */
-    public void schedule(SimpleVirtualThread task){
+    public SimpleVirtualThread schedule(SimpleVirtualThread task){
+        return schedule(task, CarrierThread.current());
+    }
+
+    /**
+     * 向调度器添加虚拟线程, 由调用方指定当前所在的载体.
+     * 用于当前线程本身不是载体线程的情况, 例如挂载在载体上的 JDK 虚拟线程(见 {@link VirtualThreadBridge}).
+     * @param carrier 当前所在的载体, 不在载体上时为 null
+     */
+    SimpleVirtualThread schedule(SimpleVirtualThread task, CarrierThread carrier){
         if (!running){
             throw new RuntimeException("scheduler already closed");
         }
-        tasks.add(task);
+        admit(task);
+        task.scheduler = this;
+        task.enqueued();
+        metrics.scheduled.increment();
+        if (mode == DispatchMode.WORK_STEALING) {
+            // 本调度器的载体线程提交的任务直接进入它的本地队列，其他线程提交的任务进入全局队列
+            if (carrier != null && carrier.scheduler == this && !shared) {
+                carrier.runQueue.offerLast(task);
+            } else {
+                tasks.offer(task);
+            }
+            signalWork();
+            return task;
+        }
+        tasks.offer(task);
+        if (parked){
+            LockSupport.unpark(dispatcher);
+        }
+        return task;
+    }
+
+    /**
+     * 批量向调度器添加虚拟线程, 只唤醒一次调度线程
+     * @param batch 虚拟线程
+     */
+    public void schedule(List<SimpleVirtualThread> batch){
+        if (!running){
+            throw new RuntimeException("scheduler already closed");
+        }
+        metrics.scheduled.add(batch.size());
+        for (SimpleVirtualThread task : batch) {
+            admit(task);
+            task.scheduler = this;
+            task.enqueued();
+            tasks.offer(task);
+        }
+        if (mode == DispatchMode.WORK_STEALING) {
+            for (int i = 0; i < batch.size() && idleCarriers.get() > 0; i++) {
+                signalWork();
+            }
+        } else if (parked){
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    /**
+     * 重新调度被唤醒的虚拟线程
+     * 工作窃取模式下, 由本调度器载体上的虚拟线程唤醒时放入该载体的 runNext 槽位, 唤醒方卸载后立即在同一载体上运行,
+     * 而不是排到队列末尾(例如生产者/消费者交接). 槽位中原有的虚拟线程移到本地队列末尾.
+     */
+    void wakeup(SimpleVirtualThread task) {
+        CarrierThread carrier;
+        if (runNextEnabled && running && mode == DispatchMode.WORK_STEALING && !shared
+                && (carrier = CarrierThread.current()) != null && carrier.scheduler == this) {
+            task.enqueued();
+            metrics.scheduled.increment();
+            SimpleVirtualThread displaced = (SimpleVirtualThread) CarrierThread.RUN_NEXT.getAndSet(carrier, task);
+            if (displaced != null) {
+                carrier.runQueue.offerLast(displaced);
+                signalWork();
+            }
+            return;
+        }
+        schedule(task);
+    }
+
+    /**
+     * 在检查点被抢占的虚拟线程重新入队: 进入全局队列而不是当前载体的本地队列, 排在已经在等待的虚拟线程之后
+     */
+    void requeue(SimpleVirtualThread task) {
+        task.enqueued();
+        metrics.scheduled.increment();
+        tasks.offer(task);
+        if (mode == DispatchMode.WORK_STEALING) {
+            signalWork();
+        } else if (parked) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    /**
+     * 新提交的虚拟线程(尚未绑定调度器)计入存活数. 关闭期间只接收本调度器中的虚拟线程派生的任务.
+     * 在虚拟线程中提交且未指定调度组、截止时间或优先级时, 继承当前虚拟线程的设置.
+     * 直接执行的任务只是某个线程的一次运行, 不经过这里, 线程本身通过 {@link #admitExternal} 计入.
+     */
+    private void admit(SimpleVirtualThread task) {
+        if (task.scheduler != null || task.isDirect()) {
+            return;
+        }
+        if (shutdown) {
+            SimpleVirtualThread current = SimpleVirtualThread.current();
+            if (current == null || current.scheduler != this) {
+                throw new RejectedExecutionException("scheduler is shutting down");
+            }
+        }
+        // 调度组、截止时间和优先级只在共用运行队列时生效, 其他情况下不必查找当前虚拟线程
+        if (shared) {
+            SimpleVirtualThread current = SimpleVirtualThread.current();
+            if (current != null) {
+                if (task.group == null) {
+                    task.group = current.group;
+                }
+                if (task.deadline == 0) {
+                    task.deadline = current.deadline;
+                }
+                if (task.priority == null) {
+                    task.priority = current.priority;
+                }
+            }
+        }
+        live.incrementAndGet();
+    }
+
+    /**
+     * 计入一个不由 SimpleVirtualThread 表示的任务, 例如 {@link VirtualThreadBridge} 创建的 JDK 虚拟线程, 结束时调用 {@link #terminated()}.
+     * 与 {@link #admit} 一样, 关闭期间只接收本调度器载体上发起的任务.
+     * @param carrier 当前所在的载体, 不在载体上时为 null
+     */
+    void admitExternal(CarrierThread carrier) {
+        if (shutdown && (carrier == null || carrier.scheduler != this)) {
+            throw new RejectedExecutionException("scheduler is shutting down");
+        }
+        live.incrementAndGet();
+    }
+
+    /**
+     * 虚拟线程结束时调用
+     */
+    void terminated() {
+        live.decrementAndGet();
+    }
+
+    /**
+     * 不再接收外部提交的新任务, 已提交的任务继续执行
+     */
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * 是否已经调用 {@link #run()} 且尚未 {@link #close()}, 即 schedule 是否会接收任务
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 已提交且尚未结束的虚拟线程数
+     */
+    public long liveTasks() {
+        return live.get();
+    }
+
+    /**
+     * 等待所有已提交的虚拟线程结束, 需要在平台线程中调用
+     * @return 是否在超时前全部结束
+     */
+    public boolean awaitTermination(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (live.get() > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, Math.min(remaining, 1_000_000));
+        }
+        return true;
+    }
+
+    /**
+     * 优雅关闭: 不再接收外部提交的新任务, 等待已提交的虚拟线程在 timeout 内结束;
+     * 超时后取消所有定时等待中的虚拟线程(抛出 {@link java.util.concurrent.CancellationException}), 再等待一小段时间让它们退出.
+     * 调度器仍需通过 {@link #close()} 关闭.
+     * @return 最终仍未结束的虚拟线程数, 通常是阻塞在锁、通道或IO上的虚拟线程
+     */
+    public long shutdownGracefully(Duration timeout) {
+        shutdown();
+        if (awaitTermination(timeout)) {
+            return 0;
+        }
+        TimingWheel timer = this.timer;
+        if (timer != null) {
+            timer.cancelAll();
+            awaitTermination(CANCEL_GRACE);
+        }
+        return live.get();
+    }
+
+    /**
+     * 获取调度器的运行指标
+     */
+    public SchedulerMetrics metrics() {
+        return metrics;
+    }
+
+    public boolean runNextEnabled() {
+        return runNextEnabled;
+    }
+
+    /**
+     * 启用或关闭 runNext 槽位, 关闭后被唤醒的虚拟线程进入本地队列末尾
+     */
+    public void setRunNext(boolean enabled) {
+        this.runNextEnabled = enabled;
+    }
+
+    /**
+     * 将载体线程绑定到指定的 CPU(仅 Linux), 必须在 {@link #run()} 之前调用.
+     * 第 i 个载体绑定到 cpus[i % cpus.length]; 工作窃取模式下载体数与 CPU 数相同时即为每核一个载体、一个本地队列.
+     * 不传参数表示不绑定.
+     */
+    public void setCarrierAffinity(int... cpus) {
+        if (running) {
+            throw new IllegalStateException("carrier affinity must be set before run()");
+        }
+        if (cpus.length == 0) {
+            carrierCpus = null;
+            return;
+        }
+        if (!CpuAffinity.isSupported()) {
+            throw new UnsupportedOperationException("carrier affinity is only supported on Linux");
+        }
+        int[] allowed = CpuAffinity.allowedCpus();
+        for (int cpu : cpus) {
+            if (Arrays.binarySearch(allowed, cpu) < 0) {
+                throw new IllegalArgumentException("cpu " + cpu + " is not in the allowed set " + Arrays.toString(allowed));
+            }
+        }
+        carrierCpus = cpus.clone();
+    }
+
+    /**
+     * 载体绑定的 CPU
+     * @return 不绑定时返回 -1
+     */
+    int carrierCpu(int index) {
+        int[] cpus = carrierCpus;
+        return cpus == null ? -1 : cpus[index % cpus.length];
+    }
+
+    /**
+     * -Dsimple.carrierAffinity=auto 绑定到进程允许的所有 CPU, 或者指定列表如 0,2,4,6
+     */
+    private static int[] defaultCarrierCpus() {
+        String value = System.getProperty("simple.carrierAffinity");
+        if (value == null || value.isBlank() || !CpuAffinity.isSupported()) {
+            return null;
+        }
+        if (value.equals("auto")) {
+            return CpuAffinity.allowedCpus();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    public PinnedPolicy pinnedPolicy() {
+        return pinnedPolicy;
+    }
+
+    /**
+     * 设置虚拟线程 park 时无法让出的处理方式
+     */
+    public void setPinnedPolicy(PinnedPolicy pinnedPolicy) {
+        this.pinnedPolicy = pinnedPolicy;
+    }
+
+    /// 所有载体线程, 空位为 null
+    CarrierThread[] carriers() {
+        return carriers;
+    }
+
+    /// 最近一次检查时被阻塞的载体数, 工作窃取模式下不做检查
+    int blockedCarriers() {
+        return executor == null ? 0 : executor.blocked();
+    }
+
+    /// 累计增加的补偿载体数
+    long compensations() {
+        return executor == null ? 0 : executor.compensations();
+    }
+
+    /**
+     * 获取调度器的时间轮
+     */
+    public TimingWheel timer() {
+        TimingWheel timer = this.timer;
+        if (timer == null) {
+            synchronized (this) {
+                if ((timer = this.timer) == null) {
+                    this.timer = timer = new TimingWheel(this, Duration.ofMillis(1));
+                }
+            }
+        }
+        return timer;
+    }
+
+    /**
+     * 获取调度器的 IO 轮询器.
+     * 默认使用 {@link SelectorPoller}; 通过 -Dsimple.poller=epoll 或 epoll-et 使用 {@link EpollPoller} 的水平/边缘触发模式(仅Linux).
+     */
+    public Poller poller() {
+        Poller poller = this.poller;
+        if (poller == null) {
+            synchronized (this) {
+                if ((poller = this.poller) == null) {
+                    this.poller = poller = switch (System.getProperty("simple.poller", "selector")) {
+                        case "epoll" -> new EpollPoller(this, false);
+                        case "epoll-et" -> new EpollPoller(this, true);
+                        default -> new SelectorPoller(this);
+                    };
+                }
+            }
+        }
+        return poller;
+    }
+
+    /**
+     * 获取调度器的 io_uring 轮询器(仅Linux), SQ 大小通过 -Dsimple.uring.entries 指定, 默认 256.
+     */
+    public IoUringPoller ioUring() {
+        IoUringPoller ioUring = this.ioUring;
+        if (ioUring == null) {
+            synchronized (this) {
+                if ((ioUring = this.ioUring) == null) {
+                    this.ioUring = ioUring = new IoUringPoller(this, Integer.getInteger("simple.uring.entries", 256));
+                }
+            }
+        }
+        return ioUring;
     }
 
     @Override
@@ -59,11 +678,58 @@ public class SimpleVirtualScheduler implements Runnable, AutoCloseable {
             throw new RuntimeException("scheduler already closed");
         }
         running = false;
-        executor.shutdown();
-        if (!tasks.isEmpty()){
-            System.out.println("unfinished tasks: " + tasks.size());
+        shutdown = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (Exception ignored) {
+            // 调度器未曾启动时没有注册
+        }
+        if (timer != null) {
+            timer.close();
+        }
+        if (watchdog != null) {
+            watchdog.close();
+        }
+        if (poller != null) {
+            poller.close();
+        }
+        if (ioUring != null) {
+            ioUring.close();
+        }
+        // 包括排队中和挂起中的虚拟线程
+        long unfinished = live.get();
+        if (mode == DispatchMode.WORK_STEALING) {
+            for (CarrierThread carrier : carriers) {
+                LockSupport.unpark(carrier);
+            }
+        } else {
+            LockSupport.unpark(dispatcher);
+            executor.shutdown();
+        }
+        if (unfinished > 0){
+            System.out.println("unfinished tasks: " + unfinished);
         }
     }
 
+    /**
+     * 调度器的工作方式
+     */
+    public enum DispatchMode {
+        /// 忙等: 不停的轮询队列, 唤醒延迟最低, 但即使没有任务也会占满一个CPU核心.
+        SPIN,
+        /// 自适应的先自旋、后 park: 空闲时不占用CPU, 由 schedule 负责唤醒.
+        PARK,
+        /// 工作窃取: 没有调度线程, 每个载体拥有自己的本地队列, 本地队列为空时从其他载体窃取任务.
+        WORK_STEALING
+    }
 
+    /**
+     * 虚拟线程 park 时因 pinned(synchronized、本地方法栈帧) 无法让出载体的处理方式, 两者都会由 {@link PinningMonitor} 记录位置.
+     */
+    public enum PinnedPolicy {
+        /// 直接阻塞载体线程直到被唤醒, 调度线程模式下由载体池临时补偿新的载体; 工作窃取模式下没有补偿.
+        OFFLOAD,
+        /// 在 park 处抛出 IllegalStateException, 便于在移植代码时尽早发现问题.
+        FAIL_FAST
+    }
 }
@@ -3,28 +3,680 @@ package com.zero.virtualThread.simple;
 import jdk.internal.vm.Continuation;
 import jdk.internal.vm.ContinuationScope;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static com.zero.virtualThread.simple.SimpleVirtualScheduler.CURRENT_VT;
 
 /**
  * 自定义虚拟线程,通过{@link jdk.internal.vm.Continuation} 实现简易版虚拟线程.
  *  - 简单来说，虚拟线程本身就是一个续体，它可以被 {@link SimpleVirtualScheduler} 所调度。
+ *  - 阻塞与唤醒参考 JDK 中 VirtualThread 的 park/unpark 实现: 先记录状态再让出载体, 真正卸载后再检查许可,
+ *    这样即使唤醒发生在让出之前也不会丢失.
+ *  - 通过 {@link #pooled} 创建的虚拟线程在任务结束后不会销毁续体, 而是回收到当前载体的缓存池中, 下次创建时直接复用,
+ *    省去 Continuation 及其栈的分配. 任务结束后调用方不能再持有该虚拟线程的引用.
+ *  - id 优先从当前载体预留的号段中分配, 避免所有载体争用同一个计数器.
+ *  - 续体栈上有 synchronized 或本地方法栈帧时无法让出(pinned), 此时由 {@link PinningMonitor} 记录位置,
+ *    并按调度器的 {@link SimpleVirtualScheduler.PinnedPolicy} 直接阻塞载体线程或者抛出异常.
+ *  - 虚拟线程本身就是任务的句柄: {@link SimpleVirtualScheduler#schedule} 返回它, 可以 {@link #join()} 等待结束
+ *    (在虚拟线程中让出载体, 在普通线程中阻塞), 或者通过 {@link #whenComplete} 注册结束回调.
+ *    等待者与回调都记录在同一个字段中, 只有一个等待者时直接存放, 不额外分配节点. 可复用的虚拟线程结束后会被回收, 不支持 join.
+ *  - 协作式抢占: 计算密集的任务在循环中调用 {@link #checkpoint()}, 一次挂载超过时间片({@link PreemptionWatchdog} 标记)后
+ *    在检查点让出并重新入队, 让等待中的其他虚拟线程先运行. 检查点在未超时时只读取载体上的两个字段.
+ *  - {@link #cancel()} 类似于中断: 设置取消标记并唤醒虚拟线程, 定时等待({@link #parkNanos})会抛出 {@link CancellationException},
+ *    其他等待只是被唤醒一次, 由业务代码通过 {@link #isCancelled()} 自行决定是否退出.
  *
  * @author Zero.
  * <p> Created on 2025/6/19 13:52 </p>
  */
 public class SimpleVirtualThread implements Runnable {
     private static final AtomicInteger COUNT = new AtomicInteger(1);
+    /// 载体每次从 COUNT 中预留的 id 数量
+    static final int ID_BLOCK = 1024;
     public static final ContinuationScope SCOPE = new ContinuationScope("SimpleVirtualThread");
-    private Continuation cont;
+
+    /// 虚拟线程状态
+    private static final int NEW = 0;
+    private static final int RUNNABLE = 1;
+    private static final int RUNNING = 2;
+    private static final int PARKING = 3;
+    private static final int PARKED = 4;
+    private static final int TERMINATED = 5;
+    /// park 时无法让出, 直接阻塞在载体线程上
+    private static final int PINNED = 6;
+    /// 主动让出, 卸载后重新入队; 重新入队后等待运行时为 YIELDED, 与 RUNNABLE 不同, 运行时不消耗许可
+    private static final int YIELDING = 7;
+    private static final int YIELDED = 8;
+
+    private static final VarHandle STATE;
+    private static final VarHandle PERMIT;
+    private static final VarHandle COMPLETION;
+    /// completion 字段在虚拟线程正常结束后的值
+    private static final Object COMPLETED = new Object();
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATE = lookup.findVarHandle(SimpleVirtualThread.class, "state", int.class);
+            PERMIT = lookup.findVarHandle(SimpleVirtualThread.class, "permit", boolean.class);
+            COMPLETION = lookup.findVarHandle(SimpleVirtualThread.class, "completion", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /// 续体, 直接在载体上执行的任务(见 {@link #direct})为 null
+    private final Continuation cont;
     private int id;
+    /// 是否为可复用的虚拟线程
+    private final boolean pooled;
+    /// 可复用虚拟线程当前要执行的任务(或直接执行的任务), 以及任务是否已经执行结束
+    private Runnable task;
+    private boolean finished;
+    private volatile int state = NEW;
+    /// park 许可，语义与 {@link java.util.concurrent.locks.LockSupport} 相同
+    private volatile boolean permit;
+    /// 处于 PINNED 状态时所阻塞的载体线程
+    private volatile Thread pinnedCarrier;
+    /// 负责调度该虚拟线程的调度器, 在 schedule 时绑定, 唤醒时重新提交给它
+    volatile SimpleVirtualScheduler scheduler;
+    /// 最近一次提交给调度器的时间, 用于统计提交到运行的延迟
+    long scheduledAt;
+    /// 正在排队的 JFR 事件, 仅在 {@link QueueWaitEvent} 开启时创建
+    private QueueWaitEvent queueWait;
+    /// 等待结束的 join 方和回调: null, 单个等待者(虚拟线程/平台线程/回调), {@link Joiner} 链表;
+    /// 结束后为 COMPLETED, 或者任务抛出的异常. 超时的 join 方会把自己从中移除
+    private volatile Object completion;
+    /// 是否已被取消
+    private volatile boolean cancelled;
+    /// 所属调度组, 仅在调度器使用 {@link FairRunQueue} 时生效
+    volatile SchedulingGroup group;
+    /// 截止时间(System.nanoTime, 0 表示未指定)和优先级, 仅在调度器使用 {@link DeadlineRunQueue} 时生效
+    volatile long deadline;
+    volatile DeadlineRunQueue.Priority priority;
 
     public SimpleVirtualThread(Runnable runnable) {
-        cont = new Continuation(SCOPE, runnable);
-        id = COUNT.getAndIncrement();
+        cont = new VirtualThreadContinuation(this, runnable);
+        id = nextId();
+        pooled = false;
+    }
+
+    private SimpleVirtualThread() {
+        cont = new VirtualThreadContinuation(this, this::runTasks);
+        pooled = true;
+    }
+
+    private SimpleVirtualThread(Runnable task, boolean pooled) {
+        cont = null;
+        this.task = task;
+        this.pooled = pooled;
+        id = nextId();
+    }
+
+    /**
+     * 创建一个没有续体、直接在载体线程上执行的任务, 和虚拟线程一样排队、计入指标, 但不能 park 或让出.
+     * 用于执行自带续体的任务, 例如 JDK 虚拟线程的 runContinuation(见 {@link VirtualThreadBridge}):
+     * 续体第一次运行时会记住外层续体, 之后只能在同一个外层续体中继续运行, 因此不能包装在每次都不同的虚拟线程中.
+     * 直接执行的任务只是某个线程的一次运行, 不计入调度器的存活数, 关闭期间也不会被拒绝, 由创建方自行计入线程的生命周期.
+     */
+    static SimpleVirtualThread direct(Runnable task) {
+        return new SimpleVirtualThread(task, false);
+    }
+
+    /**
+     * 创建一个可复用的虚拟线程: 在载体线程上调用时优先复用该载体缓存池中已经结束的虚拟线程.
+     * 任务结束后该虚拟线程会被回收, 调用方不能再对它进行 unpark 等操作.
+     * 复用的代价是每个任务结束时都要让出一次续体(冻结/解冻栈帧), 对于从不阻塞的极短任务, 这比新建续体更慢,
+     * 适合分配压力比单任务延迟更重要的场景.
+     */
+    public static SimpleVirtualThread pooled(Runnable task) {
+        CarrierThread carrier = CarrierThread.current();
+        SimpleVirtualThread vt = carrier != null ? carrier.pool.poll() : null;
+        if (vt == null) {
+            vt = new SimpleVirtualThread();
+        }
+        vt.task = task;
+        vt.id = nextId();
+        return vt;
+    }
+
+    /**
+     * 可复用虚拟线程的续体主体: 每执行完一个任务就让出, 由 {@link #afterYield} 回收, 复用时从这里继续执行下一个任务.
+     */
+    private void runTasks() {
+        while (true) {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+            task = null;
+            finished = true;
+            Continuation.yield(SCOPE);
+        }
     }
 
     public void run() {
-        System.out.println("SimpleVirtualThread[" + id + "] is running on " + Thread.currentThread());
-        cont.run();
+        if (state == RUNNABLE) {
+            // 被唤醒后重新挂载，消耗掉许可
+            permit = false;
+        }
+        state = RUNNING;
+        QueueWaitEvent queued = queueWait;
+        if (queued != null) {
+            queueWait = null;
+            queued.end();
+            if (queued.shouldCommit()) {
+                queued.vt = id;
+                queued.commit();
+            }
+        }
+        Tracer.mount(this);
+        MountEvent event = new MountEvent();
+        event.begin();
+        Throwable failure = null;
+        try {
+            if (cont != null) {
+                cont.run();
+            } else {
+                task.run();
+            }
+        } catch (Throwable e) {
+            // 任务抛出的异常会穿过续体, 结束时交给 join 方和回调
+            failure = e;
+            e.printStackTrace();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.vt = id;
+            event.terminated = isTerminated();
+            event.commit();
+        }
+        Tracer.unmount(this, isTerminated());
+        afterYield(failure);
+    }
+
+    /**
+     * 续体运行结束或让出后，在载体线程上执行
+     */
+    private void afterYield(Throwable failure) {
+        if (isTerminated()) {
+            state = TERMINATED;
+            if (cont != null) {
+                scheduler.terminated();
+            }
+            complete(failure);
+            return;
+        }
+        if (finished) {
+            scheduler.terminated();
+            recycle();
+            return;
+        }
+        if (state == YIELDING) {
+            state = YIELDED;
+            scheduler.requeue(this);
+            return;
+        }
+        if (state == PARKING) {
+            state = PARKED;
+            // 让出期间已经被 unpark 过，需要立即重新调度
+            if (permit && STATE.compareAndSet(this, PARKED, RUNNABLE)) {
+                Tracer.resume(this);
+                scheduler.schedule(this);
+            }
+        }
+    }
+
+    /// 是否为直接执行的任务
+    boolean isDirect() {
+        return cont == null;
+    }
+
+    /// 续体已经结束, 直接执行的任务执行一次即结束
+    private boolean isTerminated() {
+        return cont == null || cont.isDone();
+    }
+
+    /**
+     * 提交给调度器时调用, 开始记录排队时长
+     */
+    void enqueued() {
+        scheduledAt = System.nanoTime();
+        if (QueueWaitEvent.enabled()) {
+            QueueWaitEvent event = new QueueWaitEvent();
+            event.begin();
+            queueWait = event;
+        }
+    }
+
+    /**
+     * 重置状态后放回当前载体的缓存池, 缓存池已满时直接丢弃
+     */
+    private void recycle() {
+        finished = false;
+        scheduler = null;
+        group = null;
+        deadline = 0;
+        priority = null;
+        permit = false;
+        cancelled = false;
+        state = NEW;
+        CarrierThread carrier = CarrierThread.current();
+        if (carrier != null && carrier.pool.size() < CarrierThread.POOL_CAPACITY) {
+            carrier.pool.push(this);
+        }
+    }
+
+    /**
+     * 分配 id: 载体线程从自己预留的号段中分配, 其他线程直接使用全局计数器
+     */
+    private static int nextId() {
+        CarrierThread carrier = CarrierThread.current();
+        if (carrier == null) {
+            return COUNT.getAndIncrement();
+        }
+        if (carrier.nextId == carrier.idLimit) {
+            carrier.nextId = COUNT.getAndAdd(ID_BLOCK);
+            carrier.idLimit = carrier.nextId + ID_BLOCK;
+        }
+        return carrier.nextId++;
+    }
+
+    /**
+     * 获取当前正在运行的虚拟线程
+     * @return 不在虚拟线程中调用时返回 null
+     */
+    public static SimpleVirtualThread current() {
+        return CURRENT_VT.isBound() ? CURRENT_VT.get() : null;
+    }
+
+    /**
+     * 阻塞当前虚拟线程, 直到被 {@link #unpark()}. 可能会虚假唤醒, 调用方需要循环检查等待条件.
+     */
+    public static void park() {
+        SimpleVirtualThread vt = current();
+        if (vt == null) {
+            throw new IllegalStateException("not in a SimpleVirtualThread");
+        }
+        if ((boolean) PERMIT.getAndSet(vt, false)) {
+            return;
+        }
+        vt.state = PARKING;
+        vt.scheduler.metrics().parks.increment();
+        Tracer.yield(vt);
+        YieldEvent event = new YieldEvent();
+        if (event.shouldCommit()) {
+            event.vt = vt.id;
+            event.commit();
+        }
+        // 将虚拟线程暂停运行，这将从平台线程中卸载下来.
+        boolean yielded;
+        try {
+            yielded = Continuation.yield(SCOPE);
+        } catch (RuntimeException e) {
+            // FAIL_FAST 策略下 pinned 会抛出异常, 虚拟线程仍在运行
+            vt.state = RUNNING;
+            throw e;
+        }
+        if (!yielded) {
+            vt.parkOnCarrier();
+        }
+    }
+
+    /**
+     * pinned 时无法卸载, 只能阻塞载体线程直到获得许可. 调度线程模式下 {@link CarrierPool} 会为被阻塞的载体进行补偿.
+     */
+    private void parkOnCarrier() {
+        pinnedCarrier = Thread.currentThread();
+        // 先发布 PINNED 再检查许可, 与 makeRunnable 中 "先发放许可再检查状态" 相对应
+        state = PINNED;
+        while (!(boolean) PERMIT.getAndSet(this, false)) {
+            LockSupport.park(this);
+        }
+        state = RUNNING;
+        pinnedCarrier = null;
+    }
+
+    /**
+     * 检查点: 当前这次挂载已经超过调度器的时间片时让出载体并重新入队, 否则立即返回.
+     * 不在 SimpleVirtualThread 中调用时没有任何效果.
+     */
+    public static void checkpoint() {
+        CarrierThread carrier = CarrierThread.current();
+        if (carrier == null) {
+            return;
+        }
+        long preemptAt = carrier.preemptAt;
+        if (preemptAt == 0 || preemptAt != carrier.mountedAt) {
+            return;
+        }
+        SimpleVirtualThread vt = current();
+        if (vt != null && vt.yieldNow()) {
+            vt.scheduler.metrics().preemptions.increment();
+        }
+    }
+
+    /**
+     * 让出载体并重新入队, 排在已经在等待的虚拟线程之后
+     * @return 是否让出成功, pinned 时无法让出, 继续在当前载体上运行
+     */
+    private boolean yieldNow() {
+        state = YIELDING;
+        boolean yielded = Continuation.yield(SCOPE);
+        if (!yielded) {
+            state = RUNNING;
+        }
+        return yielded;
+    }
+
+    /**
+     * 续体让出失败时在虚拟线程中回调
+     */
+    private void onPinned(Continuation.Pinned reason) {
+        if (state == YIELDING) {
+            // 主动让出失败不影响正确性, 继续运行即可
+            return;
+        }
+        String callSite = PinningMonitor.record(reason);
+        SimpleVirtualScheduler scheduler = this.scheduler;
+        scheduler.metrics().pinned.increment();
+        Tracer.pinned(this);
+        if (scheduler.pinnedPolicy() == SimpleVirtualScheduler.PinnedPolicy.FAIL_FAST) {
+            throw new IllegalStateException(this + " pinned: " + callSite);
+        }
+    }
+
+    /**
+     * 阻塞当前虚拟线程, 直到被 {@link #unpark()} 或者超时
+     * @param nanos 最长阻塞时长(纳秒)
+     * @throws CancellationException 虚拟线程已被取消
+     */
+    public static void parkNanos(long nanos) {
+        SimpleVirtualThread vt = current();
+        if (vt == null) {
+            throw new IllegalStateException("not in a SimpleVirtualThread");
+        }
+        vt.checkCancelled();
+        if (nanos <= 0) {
+            return;
+        }
+        TimingWheel.Timeout timeout = vt.scheduler.timer().add(vt, nanos);
+        try {
+            park();
+        } finally {
+            timeout.cancel();
+        }
+        vt.checkCancelled();
+    }
+
+    private void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException(this + " cancelled");
+        }
+    }
+
+    /**
+     * 取消虚拟线程: 设置取消标记并唤醒它. 之后的定时等待会抛出 {@link CancellationException}.
+     */
+    public void cancel() {
+        cancelled = true;
+        unpark();
+    }
+
+    /// 是否已被取消
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 指定所属调度组, 需要在提交给调度器之前设置. 未指定时继承提交它的虚拟线程所在的组.
+     */
+    public void setGroup(SchedulingGroup group) {
+        this.group = group;
+    }
+
+    public SchedulingGroup group() {
+        return group;
+    }
+
+    /**
+     * 指定截止时间, 之后每次重新入队都以它为准. 未指定时继承提交它的虚拟线程的截止时间.
+     * @param deadline 截止时间(System.nanoTime)
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline == 0 ? 1 : deadline;
+    }
+
+    /// 在 timeout 之后截止
+    public void setDeadline(Duration timeout) {
+        setDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * 指定优先级, 未指定时继承提交它的虚拟线程的优先级
+     */
+    public void setPriority(DeadlineRunQueue.Priority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * 唤醒虚拟线程, 如果它已经卸载则重新提交给调度器
+     */
+    public void unpark() {
+        if (makeRunnable()) {
+            scheduler.wakeup(this);
+        }
+    }
+
+    /**
+     * 发放许可, 返回是否需要由调用方将虚拟线程重新提交给调度器. 用于批量唤醒.
+     */
+    boolean makeRunnable() {
+        if ((boolean) PERMIT.getAndSet(this, true)) {
+            return false;
+        }
+        if (STATE.compareAndSet(this, PARKED, RUNNABLE)) {
+            Tracer.resume(this);
+            return true;
+        }
+        if (state == PINNED) {
+            LockSupport.unpark(pinnedCarrier);
+        }
+        return false;
+    }
+
+    /**
+     * 等待虚拟线程结束. 在 SimpleVirtualThread 中调用时让出载体, 在普通线程中调用时阻塞当前线程.
+     * 可以通过 {@link #failure()} 获取任务抛出的异常.
+     */
+    public void join() {
+        if (isDone()) {
+            return;
+        }
+        SimpleVirtualThread self = current();
+        addCompletion(joiner(self));
+        while (!isDone()) {
+            if (self != null) {
+                park();
+            } else {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    /**
+     * 等待虚拟线程结束, 最多等待 timeout
+     * @return 是否已经结束
+     */
+    public boolean join(Duration timeout) {
+        if (isDone()) {
+            return true;
+        }
+        SimpleVirtualThread self = current();
+        Object waiter = joiner(self);
+        addCompletion(waiter);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long remaining;
+        try {
+            while (!isDone() && (remaining = deadline - System.nanoTime()) > 0) {
+                if (self != null) {
+                    parkNanos(remaining);
+                } else {
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+        } finally {
+            if (!isDone()) {
+                removeCompletion(waiter);
+            }
+        }
+        return isDone();
+    }
+
+    /**
+     * 注册结束回调, 参数为任务抛出的异常(正常结束时为 null). 已经结束时在当前线程立即执行,
+     * 否则在虚拟线程结束后由其所在的载体线程执行, 回调中不能阻塞.
+     */
+    public void whenComplete(Consumer<? super Throwable> action) {
+        addCompletion(action);
+    }
+
+    /// 是否已经结束
+    public boolean isDone() {
+        Object current = completion;
+        return current == COMPLETED || current instanceof Throwable;
+    }
+
+    /// 任务抛出的异常, 未结束或正常结束时为 null
+    public Throwable failure() {
+        return completion instanceof Throwable failure ? failure : null;
+    }
+
+    /**
+     * 确定 join 方: 可复用的虚拟线程结束后会被回收, 不能被 join; 也不能 join 自己
+     */
+    private Object joiner(SimpleVirtualThread self) {
+        if (self == this) {
+            throw new IllegalStateException(this + " cannot join itself");
+        }
+        return self != null ? self : Thread.currentThread();
+    }
+
+    /**
+     * 登记等待者或回调, 已经结束时直接唤醒/执行
+     */
+    private void addCompletion(Object waiter) {
+        if (pooled) {
+            throw new IllegalStateException("pooled SimpleVirtualThread is recycled after completion and cannot be joined");
+        }
+        Object current;
+        do {
+            current = completion;
+            if (current == COMPLETED || current instanceof Throwable) {
+                fire(waiter, failure());
+                return;
+            }
+        } while (!COMPLETION.compareAndSet(this, current, current == null ? waiter : new Joiner(waiter, current)));
+    }
+
+    /**
+     * 超时或被取消的 join 方移除自己, 避免等待链表无限增长, 以及结束时唤醒已经离开的等待者(它可能已被回收复用)
+     */
+    private void removeCompletion(Object waiter) {
+        Object current;
+        Object removed;
+        do {
+            current = completion;
+            if (current == COMPLETED || current instanceof Throwable) {
+                return;
+            }
+            removed = without(current, waiter);
+            if (removed == current) {
+                return;
+            }
+        } while (!COMPLETION.compareAndSet(this, current, removed));
+    }
+
+    /**
+     * 去掉链表中的第一个 waiter: 之前的节点重新创建, 之后的部分直接共享; 只剩一个等待者时不再使用 Joiner
+     */
+    private static Object without(Object chain, Object waiter) {
+        if (!(chain instanceof Joiner joiner)) {
+            return chain == waiter ? null : chain;
+        }
+        if (joiner.waiter == waiter) {
+            return joiner.next;
+        }
+        Object next = without(joiner.next, waiter);
+        if (next == joiner.next) {
+            return chain;
+        }
+        return next == null ? joiner.waiter : new Joiner(joiner.waiter, next);
+    }
+
+    /**
+     * 续体结束后在载体线程上调用, 唤醒所有 join 方并执行回调
+     */
+    private void complete(Throwable failure) {
+        Object waiters = COMPLETION.getAndSet(this, failure != null ? failure : COMPLETED);
+        while (waiters instanceof Joiner joiner) {
+            fire(joiner.waiter, failure);
+            waiters = joiner.next;
+        }
+        if (waiters != null) {
+            fire(waiters, failure);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fire(Object waiter, Throwable failure) {
+        switch (waiter) {
+            case SimpleVirtualThread vt -> vt.unpark();
+            case Thread thread -> LockSupport.unpark(thread);
+            default -> {
+                try {
+                    ((Consumer<? super Throwable>) waiter).accept(failure);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 多个等待者时的链表节点, 只有一个等待者时不会创建
+     */
+    private record Joiner(Object waiter, Object next) {
+    }
+
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "SimpleVirtualThread[" + id + "]";
+    }
+
+    /**
+     * 虚拟线程的续体, 让出失败时回调虚拟线程而不是直接抛出异常
+     */
+    private static final class VirtualThreadContinuation extends Continuation {
+        private final SimpleVirtualThread vt;
+
+        VirtualThreadContinuation(SimpleVirtualThread vt, Runnable target) {
+            super(SCOPE, target);
+            this.vt = vt;
+        }
+
+        @Override
+        protected void onPinned(Pinned reason) {
+            vt.onPinned(reason);
+        }
     }
 }
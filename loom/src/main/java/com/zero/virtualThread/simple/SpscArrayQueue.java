@@ -0,0 +1,165 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 基于数组的有界无锁单生产者单消费者队列, 用作分片之间的邮箱.
+ *  - 以槽位是否为 null 判断能否读写: 生产者写入元素时使用 release 语义, 消费者以 acquire 语义读到非 null 即可取走,
+ *    取走后以 release 语义置空归还槽位. 生产者和消费者只写各自的下标, 不需要 CAS.
+ *  - 生产下标和消费下标放在同一个 long 数组中相隔两个缓存行的位置, 只用于 {@link #size()}.
+ *  - 只能有一个线程调用 {@link #offer}, 一个线程调用 {@link #poll}/{@link #drain}/{@link #isEmpty}, 两者可以不同.
+ *  - 不支持 null 元素, 队列满时 {@link #offer} 返回 false.
+ *  - 迭代器是弱一致的, 可以在任意线程中使用: 只遍历创建时位于两个下标之间、且读取时仍未被取走的元素.
+ *    不支持从队列中间删除元素, 因此 {@link Iterator#remove()} 以及 remove(Object) 等批量删除操作抛出 UnsupportedOperationException.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 02:50 </p>
+ */
+public final class SpscArrayQueue<E> extends AbstractQueue<E> {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    /// 两个缓存行(128 字节)对应的 long 个数
+    private static final int PAD = 16;
+    private static final int PRODUCER = PAD;
+    private static final int CONSUMER = PAD * 2;
+
+    /// 生产下标与消费下标, 前后各留出 PAD 个 long 的空隙
+    private final long[] indices = new long[PAD * 3 + 1];
+    private final Object[] elements;
+    private final int mask;
+
+    /**
+     * @param capacity 容量, 向上取整为2的幂
+     */
+    public SpscArrayQueue(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        mask = size - 1;
+        elements = new Object[size];
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long index = (long) LONGS.getOpaque(indices, PRODUCER);
+        int offset = (int) index & mask;
+        if (ELEMENTS.getAcquire(elements, offset) != null) {
+            return false;
+        }
+        ELEMENTS.setRelease(elements, offset, e);
+        LONGS.setRelease(indices, PRODUCER, index + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long index = (long) LONGS.getOpaque(indices, CONSUMER);
+        int offset = (int) index & mask;
+        E e = (E) ELEMENTS.getAcquire(elements, offset);
+        if (e == null) {
+            return null;
+        }
+        ELEMENTS.setRelease(elements, offset, null);
+        LONGS.setRelease(indices, CONSUMER, index + 1);
+        return e;
+    }
+
+    /**
+     * 一次取出最多 limit 个元素交给 sink, 最后只更新一次消费下标
+     * @return 取出的元素个数
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> sink, int limit) {
+        long index = (long) LONGS.getOpaque(indices, CONSUMER);
+        int n = 0;
+        for (; n < limit; n++) {
+            int offset = (int) (index + n) & mask;
+            E e = (E) ELEMENTS.getAcquire(elements, offset);
+            if (e == null) {
+                break;
+            }
+            ELEMENTS.setRelease(elements, offset, null);
+            sink.accept(e);
+        }
+        if (n > 0) {
+            LONGS.setRelease(indices, CONSUMER, index + n);
+        }
+        return n;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return (E) ELEMENTS.getAcquire(elements, (int) (long) LONGS.getOpaque(indices, CONSUMER) & mask);
+    }
+
+    /**
+     * 只能由消费者调用: 下一个槽位是否已有元素
+     */
+    @Override
+    public boolean isEmpty() {
+        return peek() == null;
+    }
+
+    @Override
+    public int size() {
+        long consumer = (long) LONGS.getAcquire(indices, CONSUMER);
+        long producer = (long) LONGS.getAcquire(indices, PRODUCER);
+        return (int) Math.max(0, Math.min(producer - consumer, mask + 1L));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * 弱一致迭代器: 遍历创建时的 [消费下标, 生产下标) 区间.
+     * 读到元素之后消费下标仍未越过该下标时, 元素才属于该下标; 否则槽位可能已被取走并重新写入, 跳过该下标.
+     */
+    private final class Itr implements Iterator<E> {
+        private final long end = (long) LONGS.getAcquire(indices, PRODUCER);
+        private long index = (long) LONGS.getAcquire(indices, CONSUMER);
+        private E next = advance();
+
+        @SuppressWarnings("unchecked")
+        private E advance() {
+            for (; index < end; index++) {
+                Object e = ELEMENTS.getAcquire(elements, (int) index & mask);
+                if (e != null && (long) LONGS.getAcquire(indices, CONSUMER) <= index) {
+                    index++;
+                    return (E) e;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            E e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            next = advance();
+            return e;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.zero.virtualThread.simple;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 对比 {@link SimpleMutex}/{@link SimpleCondition}/{@link SimpleSemaphore} 在自定义调度器上,
+ * 与 {@link ReentrantLock}/{@link Condition}/{@link Semaphore} 在 JDK 虚拟线程上的竞争性能.
+ *  - mutex: 所有虚拟线程争抢同一把锁累加计数.
+ *  - semaphore: 4个许可, 所有虚拟线程争抢许可.
+ *  - condition: 一个容量为16的有界缓冲区, 一半虚拟线程生产、一半消费, 缓冲区满/空时通过条件变量等待.
+ * 载体数与 JDK 虚拟线程调度器的并行度一致, 运行参数: [virtualThreads=1000] [iterations=1000]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 23:10 </p>
+ */
+public class SyncBenchmark {
+    private static final int CARRIERS = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    private static final int CAPACITY = 16;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (String workload : new String[]{"mutex", "semaphore", "condition"}) {
+                long simple = runSimple(workload, threads, iterations);
+                long jdk = runJdk(workload, threads, iterations);
+                if (round > 0) {
+                    System.out.printf("[%s] %,d ops, simple: %d ms (%,.0f ops/s), jdk: %d ms (%,.0f ops/s)%n", workload,
+                            (long) threads * iterations, simple / 1_000_000, threads * (double) iterations * 1e9 / simple,
+                            jdk / 1_000_000, threads * (double) iterations * 1e9 / jdk);
+                }
+            }
+        }
+    }
+
+    private static long runSimple(String workload, int threads, int iterations) throws InterruptedException {
+        try (var scheduler = new SimpleVirtualScheduler(CARRIERS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            var mutex = new SimpleMutex();
+            var notFull = mutex.newCondition();
+            var notEmpty = mutex.newCondition();
+            var semaphore = new SimpleSemaphore(4);
+            var buffer = new ArrayDeque<Integer>(CAPACITY);
+            long[] counter = new long[1];
+            var done = new CountDownLatch(threads);
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                boolean producer = t % 2 == 0;
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        switch (workload) {
+                            case "mutex" -> {
+                                mutex.lock();
+                                counter[0]++;
+                                mutex.unlock();
+                            }
+                            case "semaphore" -> {
+                                semaphore.acquire();
+                                counter[0]++;
+                                semaphore.release();
+                            }
+                            default -> {
+                                mutex.lock();
+                                if (producer) {
+                                    while (buffer.size() == CAPACITY) {
+                                        notFull.await();
+                                    }
+                                    buffer.add(i);
+                                    notEmpty.signal();
+                                } else {
+                                    while (buffer.isEmpty()) {
+                                        notEmpty.await();
+                                    }
+                                    buffer.poll();
+                                    notFull.signal();
+                                }
+                                mutex.unlock();
+                            }
+                        }
+                    }
+                    done.countDown();
+                }));
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+            check(workload, counter[0], threads, iterations);
+            return elapsed;
+        }
+    }
+
+    private static long runJdk(String workload, int threads, int iterations) throws InterruptedException {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var lock = new ReentrantLock();
+            var notFull = lock.newCondition();
+            var notEmpty = lock.newCondition();
+            var semaphore = new Semaphore(4);
+            var buffer = new ArrayDeque<Integer>(CAPACITY);
+            long[] counter = new long[1];
+            var done = new CountDownLatch(threads);
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                boolean producer = t % 2 == 0;
+                executor.execute(() -> {
+                    try {
+                        for (int i = 0; i < iterations; i++) {
+                            switch (workload) {
+                                case "mutex" -> {
+                                    lock.lock();
+                                    counter[0]++;
+                                    lock.unlock();
+                                }
+                                case "semaphore" -> {
+                                    semaphore.acquire();
+                                    counter[0]++;
+                                    semaphore.release();
+                                }
+                                default -> {
+                                    lock.lock();
+                                    if (producer) {
+                                        while (buffer.size() == CAPACITY) {
+                                            notFull.await();
+                                        }
+                                        buffer.add(i);
+                                        notEmpty.signal();
+                                    } else {
+                                        while (buffer.isEmpty()) {
+                                            notEmpty.await();
+                                        }
+                                        buffer.poll();
+                                        notFull.signal();
+                                    }
+                                    lock.unlock();
+                                }
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.countDown();
+                });
+            }
+            done.await();
+            long elapsed = System.nanoTime() - start;
+            check(workload, counter[0], threads, iterations);
+            return elapsed;
+        }
+    }
+
+    /// 互斥是否生效: 计数必须与总操作数一致(semaphore 有4个许可, 不检查)
+    private static void check(String workload, long counter, int threads, int iterations) {
+        if (workload.equals("mutex") && counter != (long) threads * iterations) {
+            throw new IllegalStateException("lost updates: " + counter);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 分层时间轮, 由 {@link SimpleVirtualScheduler} 持有, 为其中所有虚拟线程的定时等待共用一个平台线程.
+ *  - 共 {@value #LEVELS} 层，每层 {@value #WHEEL_SIZE} 个槽位; 第0层每个槽位一个tick，上一层每个槽位覆盖下一层的一整圈.
+ *  - 到期时间较远的定时任务放在高层, 当低层转完一圈时将高层对应槽位中的任务逐级下放(cascade)到低层.
+ *  - 添加、取消都只是入队 + 修改状态，由时间轮线程统一挂到(或摘出)槽位的双向链表上，都是 O(1) 操作.
+ *  - 同一个tick内到期的虚拟线程会一次性批量交还给调度器.
+ *  - 调度器优雅关闭超时后调用 {@link #cancelAll()}: 取消所有正在(以及之后)定时等待的虚拟线程, 让它们尽快结束.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 13:20 </p>
+ */
+public class TimingWheel implements AutoCloseable {
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    /// 时间轮能表示的最大tick跨度, 超出的任务先放在最高层, 下放时再重新计算
+    private static final long MAX_SPAN = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    /// 调度器，到期的虚拟线程将重新交给它
+    private final SimpleVirtualScheduler scheduler;
+    /// 每个tick的时长
+    private final long tickNanos;
+    /// 时间轮的起始时间, tick 以此为零点
+    private final long startNanos = System.nanoTime();
+    /// 每个槽位上的定时任务双向链表的头结点
+    private final Timeout[][] buckets = new Timeout[LEVELS][WHEEL_SIZE];
+    /// 新添加、尚未挂到槽位上的定时任务
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    /// 已取消、等待从槽位上摘除的定时任务
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    /// 本轮到期需要重新调度的虚拟线程
+    private final List<SimpleVirtualThread> expired = new ArrayList<>();
+    private final Thread ticker;
+
+    /// 时间轮当前走到的tick, 以下字段只由时间轮线程读写
+    private long currentTick;
+    /// 挂在槽位上的定时任务数
+    private int size;
+    /// 本轮 tick 开始时的时间
+    private long now;
+
+    private volatile boolean running = true;
+    /// 时间轮中没有任务时，时间轮线程 park 直到有新任务加入
+    private volatile boolean sleeping = false;
+    /// 是否取消所有定时等待
+    private volatile boolean cancelling = false;
+
+    public TimingWheel(SimpleVirtualScheduler scheduler, Duration tick) {
+        this.scheduler = scheduler;
+        this.tickNanos = tick.toNanos();
+        ticker = new Thread(this::runTicker, "simple-timing-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * 添加定时任务: 到期后唤醒虚拟线程
+     * @param thread 虚拟线程
+     * @param delayNanos 延迟时长(纳秒)
+     * @return 定时任务，可用于取消
+     */
+    public Timeout add(SimpleVirtualThread thread, long delayNanos) {
+        var timeout = new Timeout(this, thread, System.nanoTime() + delayNanos);
+        pending.add(timeout);
+        if (sleeping) {
+            LockSupport.unpark(ticker);
+        }
+        return timeout;
+    }
+
+    /**
+     * 让当前虚拟线程休眠一段时间, 期间虚拟线程从载体上卸载
+     * @param duration 休眠时长
+     */
+    public void sleep(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        for (long remaining = duration.toNanos(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            SimpleVirtualThread.parkNanos(remaining);
+        }
+    }
+
+    private void runTicker() {
+        while (running) {
+            now = System.nanoTime();
+            long nowTick = (now - startNanos) / tickNanos;
+            if (size == 0) {
+                // 时间轮为空，直接跳到当前tick
+                currentTick = Math.max(currentTick, nowTick);
+            }
+            for (Timeout timeout; (timeout = pending.poll()) != null; ) {
+                if (timeout.state == Timeout.INIT) {
+                    place(timeout);
+                }
+            }
+            for (Timeout timeout; (timeout = cancelled.poll()) != null; ) {
+                unlink(timeout);
+            }
+            if (cancelling) {
+                cancelBuckets();
+            }
+            while (currentTick < nowTick) {
+                currentTick++;
+                cascade(1);
+                expireBucket();
+            }
+            flushExpired();
+
+            if (size == 0) {
+                sleeping = true;
+                if (pending.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+            } else {
+                long nextTickAt = startNanos + (currentTick + 1) * tickNanos;
+                LockSupport.parkNanos(this, nextTickAt - System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * 根据距离到期的tick数, 将定时任务挂到对应层的槽位上
+     */
+    private void place(Timeout timeout) {
+        long deadlineTick = deadlineTick(timeout.deadline);
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            expire(timeout);
+            return;
+        }
+        long slotTick = currentTick + Math.min(delta, MAX_SPAN);
+        int level = 0;
+        while (level < LEVELS - 1 && Math.min(delta, MAX_SPAN) >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        Timeout head = buckets[level][slot];
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        buckets[level][slot] = timeout;
+        size++;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.level < 0) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.level][timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = timeout.next = null;
+        timeout.level = -1;
+        size--;
+    }
+
+    /**
+     * 低一层转完一圈时，把本层当前槽位上的定时任务重新放置到低层. 本层也转完一圈时先处理更高一层.
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS || (currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        int slot = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        if (slot == 0) {
+            cascade(level + 1);
+        }
+        Timeout timeout = buckets[level][slot];
+        buckets[level][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = timeout.next = null;
+            timeout.level = -1;
+            size--;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * 第0层当前槽位上的定时任务全部到期
+     */
+    private void expireBucket() {
+        int slot = (int) (currentTick & WHEEL_MASK);
+        Timeout timeout = buckets[0][slot];
+        buckets[0][slot] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = timeout.next = null;
+            timeout.level = -1;
+            size--;
+            expire(timeout);
+            timeout = next;
+        }
+    }
+
+    private void expire(Timeout timeout) {
+        if (Timeout.STATE.compareAndSet(timeout, Timeout.INIT, Timeout.EXPIRED)) {
+            scheduler.metrics().timerLateness.record(now - timeout.deadline);
+            if (timeout.thread.makeRunnable()) {
+                expired.add(timeout.thread);
+            }
+        }
+    }
+
+    /**
+     * 取消所有槽位上的定时任务, 并取消对应的虚拟线程
+     */
+    private void cancelBuckets() {
+        for (Timeout[] level : buckets) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                Timeout timeout = level[slot];
+                level[slot] = null;
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    timeout.prev = timeout.next = null;
+                    timeout.level = -1;
+                    size--;
+                    if (Timeout.STATE.compareAndSet(timeout, Timeout.INIT, Timeout.EXPIRED)) {
+                        timeout.thread.cancel();
+                    }
+                    timeout = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * 取消所有正在定时等待的虚拟线程, 之后新加入的定时任务也会被立即取消
+     */
+    void cancelAll() {
+        cancelling = true;
+        LockSupport.unpark(ticker);
+    }
+
+    /**
+     * 将本轮到期的虚拟线程批量交还给调度器
+     */
+    private void flushExpired() {
+        if (!expired.isEmpty()) {
+            scheduler.schedule(expired);
+            expired.clear();
+        }
+    }
+
+    /// 到期时间所在的tick, 向上取整保证不会提前唤醒
+    private long deadlineTick(long deadline) {
+        return Math.ceilDiv(deadline - startNanos, tickNanos);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    /**
+     * 定时任务
+     */
+    public static final class Timeout {
+        private static final int INIT = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+        private static final VarHandle STATE;
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final TimingWheel wheel;
+        private final SimpleVirtualThread thread;
+        /// 到期时间(System.nanoTime)
+        private final long deadline;
+        private volatile int state = INIT;
+        /// 槽位链表信息, 只由时间轮线程读写, level 为 -1 表示不在任何槽位上
+        private Timeout prev, next;
+        private int level = -1, slot;
+
+        private Timeout(TimingWheel wheel, SimpleVirtualThread thread, long deadline) {
+            this.wheel = wheel;
+            this.thread = thread;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消定时任务
+         * @return 已经到期或已取消时返回 false
+         */
+        public boolean cancel() {
+            if (STATE.compareAndSet(this, INIT, CANCELLED)) {
+                wheel.cancelled.add(this);
+                return true;
+            }
+            return false;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.zero.virtualThread.simple;
+
+import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 调度器热路径上的事件追踪, 默认关闭, 通过 -Dsimple.trace=true 开启.
+ *  - 记录虚拟线程的挂载(MOUNT)、卸载(UNMOUNT)、让出(YIELD)、唤醒(RESUME)、无法让出(PINNED) 以及 {@link WaitingOperate} 的等待(WAIT) 事件.
+ *  - 每个载体线程有自己的环形缓冲区, 只由该载体写入, 写入时不加锁、不分配对象.
+ *    其他线程(时间轮、轮询器、桥接的 JDK 虚拟线程等)数量不定, 共用一个多写者的环形缓冲区, 写入时只需一次 getAndAdd.
+ *    缓冲区写满后覆盖最旧的事件.
+ *  - 通过 {@link #drain()} 取出所有缓冲区中的新事件, 可以写入二进制文件 {@link #drainTo(Path)} 或文本 {@link #drainTo(PrintStream)}.
+ *    二进制文件可以通过 {@link #main} 转换为文本.
+ * 关闭时 {@link #ENABLED} 是常量 false, 所有记录方法都会被 JIT 消除.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 19:10 </p>
+ */
+public final class Tracer {
+    /// 是否开启追踪
+    public static final boolean ENABLED = Boolean.getBoolean("simple.trace");
+    /// 每个缓冲区能保存的事件数, 向上取整为2的幂
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(1024, Integer.getInteger("simple.trace.size", 1 << 16)) * 2 - 1);
+    private static final int MAGIC = 0x53545243;
+    private static final int VERSION = 1;
+
+    /// 所有载体线程的缓冲区以及非载体线程共用的缓冲区
+    private static final Queue<Buffer> BUFFERS = new ConcurrentLinkedQueue<>();
+    /// 非载体线程共用的缓冲区, 首次使用时创建
+    private static volatile Buffer shared;
+    /// 事件标签(如等待的事件名)与编号的映射, 编号从1开始, 0表示没有标签
+    private static final Map<String, Integer> LABEL_IDS = new ConcurrentHashMap<>();
+    private static final List<String> LABELS = new CopyOnWriteArrayList<>(List.of(""));
+
+    private Tracer() {
+    }
+
+    /**
+     * 事件类型
+     */
+    public enum Type {
+        /// 虚拟线程挂载到载体线程
+        MOUNT,
+        /// 虚拟线程从载体线程卸载, arg 为1表示已经执行结束
+        UNMOUNT,
+        /// 虚拟线程 park 让出载体
+        YIELD,
+        /// 虚拟线程被唤醒并重新提交给调度器, 由唤醒方记录
+        RESUME,
+        /// 虚拟线程开始等待, label 为等待的事件名, arg 为等待时长(纳秒)
+        WAIT,
+        /// 虚拟线程 park 时处于 pinned 状态, 无法让出载体
+        PINNED
+    }
+
+    /**
+     * 追踪事件
+     * @param time 记录时间 {@link System#nanoTime()}
+     * @param type 事件类型
+     * @param carrier 记录事件的载体编号, 非载体线程为 -1
+     * @param vt 虚拟线程 id
+     * @param label 事件标签
+     * @param arg 事件参数
+     */
+    public record Event(long time, Type type, int carrier, int vt, String label, long arg) {
+        @Override
+        public String toString() {
+            return String.format("%d %-7s carrier=%d vt=%d%s%s", time, type, carrier, vt,
+                    label.isEmpty() ? "" : " label=" + label, arg == 0 ? "" : " arg=" + arg);
+        }
+    }
+
+    static void mount(SimpleVirtualThread vt) {
+        if (ENABLED) {
+            buffer().record(Type.MOUNT, vt.id(), 0, 0);
+        }
+    }
+
+    static void unmount(SimpleVirtualThread vt, boolean done) {
+        if (ENABLED) {
+            buffer().record(Type.UNMOUNT, vt.id(), 0, done ? 1 : 0);
+        }
+    }
+
+    static void yield(SimpleVirtualThread vt) {
+        if (ENABLED) {
+            buffer().record(Type.YIELD, vt.id(), 0, 0);
+        }
+    }
+
+    static void resume(SimpleVirtualThread vt) {
+        if (ENABLED) {
+            buffer().record(Type.RESUME, vt.id(), 0, 0);
+        }
+    }
+
+    static void pinned(SimpleVirtualThread vt) {
+        if (ENABLED) {
+            buffer().record(Type.PINNED, vt.id(), 0, 0);
+        }
+    }
+
+    static void wait(SimpleVirtualThread vt, String label, long nanos) {
+        if (ENABLED) {
+            buffer().record(Type.WAIT, vt == null ? 0 : vt.id(), labelId(label), nanos);
+        }
+    }
+
+    /**
+     * 取出所有缓冲区中上次 drain 之后的新事件, 按时间排序. 被覆盖的事件会被丢弃.
+     */
+    public static synchronized List<Event> drain() {
+        List<Event> events = new ArrayList<>();
+        for (Buffer buffer : BUFFERS) {
+            buffer.drain(events);
+        }
+        events.sort(Comparator.comparingLong(Event::time));
+        return events;
+    }
+
+    /**
+     * 取出新事件并以文本形式输出
+     */
+    public static void drainTo(PrintStream out) {
+        for (Event event : drain()) {
+            out.println(event);
+        }
+    }
+
+    /**
+     * 取出新事件并写入二进制文件, 文件已存在时覆盖
+     */
+    public static void drainTo(Path file) throws IOException {
+        List<Event> events = drain();
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            List<String> labels = List.copyOf(LABELS);
+            out.writeInt(labels.size());
+            for (String label : labels) {
+                out.writeUTF(label);
+            }
+            out.writeInt(events.size());
+            for (Event event : events) {
+                out.writeLong(event.time());
+                out.writeByte(event.type().ordinal());
+                out.writeInt(event.carrier());
+                out.writeInt(event.vt());
+                out.writeInt(LABEL_IDS.getOrDefault(event.label(), 0));
+                out.writeLong(event.arg());
+            }
+        }
+    }
+
+    /**
+     * 读取 {@link #drainTo(Path)} 写入的二进制文件
+     */
+    public static List<Event> read(Path file) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("not a trace file: " + file);
+            }
+            String[] labels = new String[in.readInt()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = in.readUTF();
+            }
+            Type[] types = Type.values();
+            int count = in.readInt();
+            List<Event> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                events.add(new Event(in.readLong(), types[in.readByte()], in.readInt(), in.readInt(),
+                        labels[in.readInt()], in.readLong()));
+            }
+            return events;
+        }
+    }
+
+    /**
+     * 将二进制追踪文件转换为文本输出
+     * 运行参数: 追踪文件路径
+     */
+    public static void main(String[] args) throws IOException {
+        for (Event event : read(Path.of(args[0]))) {
+            System.out.println(event);
+        }
+    }
+
+    private static int labelId(String label) {
+        Integer id = LABEL_IDS.get(label);
+        if (id != null) {
+            return id;
+        }
+        synchronized (LABELS) {
+            return LABEL_IDS.computeIfAbsent(label, l -> {
+                LABELS.add(l);
+                return LABELS.size() - 1;
+            });
+        }
+    }
+
+    /// 当前线程的缓冲区
+    private static Buffer buffer() {
+        CarrierThread carrier = CarrierThread.current();
+        if (carrier == null) {
+            return sharedBuffer();
+        }
+        Buffer buffer = carrier.trace;
+        if (buffer == null) {
+            carrier.trace = buffer = register(new Buffer(carrier.index));
+        }
+        return buffer;
+    }
+
+    private static Buffer sharedBuffer() {
+        Buffer buffer = shared;
+        if (buffer == null) {
+            synchronized (BUFFERS) {
+                if ((buffer = shared) == null) {
+                    shared = buffer = register(new SharedBuffer());
+                }
+            }
+        }
+        return buffer;
+    }
+
+    private static Buffer register(Buffer buffer) {
+        BUFFERS.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * 单写者环形缓冲区: 每个事件占4个 long, 依次为时间、类型与标签、虚拟线程 id、参数.
+     *  - 写入方先写事件内容再以 release 语义发布 tail.
+     *  - 读取方以 acquire 语义读 tail 后拷贝事件, 拷贝完成后再读一次 tail, 丢弃期间可能已被覆盖的事件.
+     */
+    static class Buffer {
+        static final VarHandle TAIL;
+        static {
+            try {
+                TAIL = MethodHandles.lookup().findVarHandle(Buffer.class, "tail", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final long[] events = new long[CAPACITY * 4];
+        final int carrier;
+        /// 已写入(多写者缓冲区中为已占用)的事件总数
+        volatile long tail;
+        /// 已读取的事件总数, 只在 drain 中访问
+        long head;
+
+        Buffer(int carrier) {
+            this.carrier = carrier;
+        }
+
+        void record(Type type, int vt, int label, long arg) {
+            long t = (long) TAIL.get(this);
+            int i = (int) (t & (CAPACITY - 1)) << 2;
+            events[i] = System.nanoTime();
+            events[i + 1] = (long) label << 8 | type.ordinal();
+            events[i + 2] = vt;
+            events[i + 3] = arg;
+            TAIL.setRelease(this, t + 1);
+        }
+
+        void drain(List<Event> out) {
+            long end = (long) TAIL.getAcquire(this);
+            long start = Math.max(head, end - CAPACITY);
+            int from = out.size();
+            Type[] types = Type.values();
+            for (long t = start; t < end; t++) {
+                int i = (int) (t & (CAPACITY - 1)) << 2;
+                long header = events[i + 1];
+                out.add(new Event(events[i], types[(int) (header & 0xFF)], carrier, (int) events[i + 2],
+                        LABELS.get((int) (header >>> 8)), events[i + 3]));
+            }
+            VarHandle.loadLoadFence();
+            // 拷贝期间写入方可能已经绕回并覆盖了最早的部分事件: 正在写入(尚未发布)第 T 个事件时, 第 T - CAPACITY 个事件已经不完整
+            long overwritten = (long) TAIL.getAcquire(this) - CAPACITY + 1 - start;
+            if (overwritten > 0) {
+                out.subList(from, from + (int) Math.min(overwritten, end - start)).clear();
+            }
+            head = end;
+        }
+    }
+
+    /**
+     * 非载体线程共用的多写者环形缓冲区, 每个槽位带一个序号(类似 seqlock):
+     *  - 写入方通过 getAndAdd 占用第 t 个事件, 先把槽位序号置为0(写入中), 写完事件内容后以 release 语义发布为 t + 1.
+     *  - 读取方在拷贝前后两次读到的序号都等于 t + 1 时才保留该事件, 尚未发布或者拷贝期间被覆盖的事件会被丢弃.
+     */
+    static final class SharedBuffer extends Buffer {
+        private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+        /// 槽位序号: 0 表示未写入或正在写入, 否则为已发布事件的编号 + 1
+        private final long[] sequences = new long[CAPACITY];
+
+        SharedBuffer() {
+            super(-1);
+        }
+
+        @Override
+        void record(Type type, int vt, int label, long arg) {
+            long t = (long) TAIL.getAndAdd(this, 1L);
+            int slot = (int) (t & (CAPACITY - 1));
+            int i = slot << 2;
+            SEQUENCES.setOpaque(sequences, slot, 0L);
+            VarHandle.storeStoreFence();
+            events[i] = System.nanoTime();
+            events[i + 1] = (long) label << 8 | type.ordinal();
+            events[i + 2] = vt;
+            events[i + 3] = arg;
+            SEQUENCES.setRelease(sequences, slot, t + 1);
+        }
+
+        @Override
+        void drain(List<Event> out) {
+            long end = (long) TAIL.getAcquire(this);
+            long start = Math.max(head, end - CAPACITY);
+            Type[] types = Type.values();
+            for (long t = start; t < end; t++) {
+                int slot = (int) (t & (CAPACITY - 1));
+                int i = slot << 2;
+                if ((long) SEQUENCES.getAcquire(sequences, slot) != t + 1) {
+                    continue;
+                }
+                long time = events[i];
+                long header = events[i + 1];
+                long vt = events[i + 2];
+                long arg = events[i + 3];
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCES.getAcquire(sequences, slot) == t + 1) {
+                    out.add(new Event(time, types[(int) (header & 0xFF)], carrier, (int) vt,
+                            LABELS.get((int) (header >>> 8)), arg));
+                }
+            }
+            head = end;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 让 JDK 的虚拟线程({@link Thread#ofVirtual()})运行在 {@link SimpleVirtualScheduler} 的载体上.
+ *  - JDK 的虚拟线程调度器本身是一个 {@link Executor}: 虚拟线程启动或被唤醒时把自己的 runContinuation 提交给它.
+ *    JDK 内部的 {@code java.lang.ThreadBuilders.VirtualThreadBuilder} 有一个接收 Executor 的构造函数(供 JDK 自身的测试使用),
+ *    这里通过反射创建该构造器, 把本类作为调度器传入.
+ *  - 每个 runContinuation 包装为 {@link SimpleVirtualThread#direct 直接执行的任务} 交给调度器, 与 SimpleVirtualThread 一起排队,
+ *    计入调度器的运行指标, 使用载体的 CPU 亲和性; 指定 {@link SchedulingGroup} 时按组公平调度(需要调度器使用 {@link FairRunQueue}).
+ *  - JDK 虚拟线程中 Thread.currentThread() 是虚拟线程本身, 通过 {@code Thread.currentCarrierThread()} 找到所在的载体,
+ *    使得载体上的 JDK 虚拟线程唤醒的其他虚拟线程进入该载体的本地队列, 而不是全局队列.
+ *  - 阻塞由 JDK 处理: LockSupport.park、Thread.sleep、socket 等都会卸载 JDK 虚拟线程, 唤醒时重新提交到这里.
+ *    {@link WaitQueue} 以及基于它的 {@link SimpleMutex}、{@link SimpleSemaphore} 等在 JDK 虚拟线程中退化为 LockSupport.park,
+ *    同样只卸载虚拟线程; 而 {@link SimpleVirtualThread#park()}/{@link SimpleVirtualThread#parkNanos} 只能在 SimpleVirtualThread 中调用,
+ *    在 JDK 虚拟线程中会抛出 IllegalStateException.
+ *  - 每个通过本类创建的 JDK 虚拟线程在创建时计入调度器的存活数, 任务结束时减去, 因此 {@link SimpleVirtualScheduler#awaitTermination}
+ *    等会等待阻塞中的 JDK 虚拟线程. 调度器 {@link SimpleVirtualScheduler#shutdown() 关闭} 后不再创建新线程(载体上的线程创建的除外),
+ *    已有线程的每次唤醒仍正常调度.
+ *  - JDK 虚拟线程被 pinned 时会阻塞载体线程, 调度器的 {@link PinningMonitor} 和补偿机制对它不可见.
+ *  - 调度器 {@link SimpleVirtualScheduler#close() 关闭} 后 JDK 虚拟线程无法再被调度, 应当先等待所有 JDK 虚拟线程结束再关闭调度器.
+ * 运行参数 --add-opens java.base/java.lang=ALL-UNNAMED: 构造函数是包私有的, 仅 --add-exports 不能反射访问 java.lang 中的非公开成员.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 03:40 </p>
+ */
+public final class VirtualThreadBridge implements Executor {
+    /// VirtualThreadBuilder(Executor), 无法访问时为 null
+    private static final Constructor<?> BUILDER;
+    /// 无法访问构造函数的原因
+    private static final RuntimeException UNSUPPORTED;
+    /// Thread.currentCarrierThread(), 无法访问时为 null
+    private static final MethodHandle CURRENT_CARRIER;
+    static {
+        Constructor<?> builder = null;
+        RuntimeException unsupported = null;
+        try {
+            builder = Class.forName("java.lang.ThreadBuilders$VirtualThreadBuilder").getDeclaredConstructor(Executor.class);
+            builder.setAccessible(true);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            builder = null;
+            unsupported = new IllegalStateException("VirtualThreadBuilder(Executor) is not accessible, "
+                    + "run with --add-opens java.base/java.lang=ALL-UNNAMED", e);
+        }
+        BUILDER = builder;
+        UNSUPPORTED = unsupported;
+        MethodHandle currentCarrier = null;
+        if (builder != null) {
+            try {
+                currentCarrier = MethodHandles.privateLookupIn(Thread.class, MethodHandles.lookup())
+                        .findStatic(Thread.class, "currentCarrierThread", MethodType.methodType(Thread.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // 只影响任务进入本地队列还是全局队列
+            }
+        }
+        CURRENT_CARRIER = currentCarrier;
+    }
+
+    private final SimpleVirtualScheduler scheduler;
+    private final SchedulingGroup group;
+
+    public VirtualThreadBridge(SimpleVirtualScheduler scheduler) {
+        this(scheduler, null);
+    }
+
+    /**
+     * @param group 所有 JDK 虚拟线程所属的调度组, 为 null 时不指定
+     */
+    public VirtualThreadBridge(SimpleVirtualScheduler scheduler, SchedulingGroup group) {
+        this.scheduler = scheduler;
+        this.group = group;
+    }
+
+    /**
+     * 当前 JDK 是否允许访问 VirtualThreadBuilder(Executor)
+     */
+    public static boolean isSupported() {
+        return BUILDER != null;
+    }
+
+    /**
+     * 创建运行在本调度器上的虚拟线程构建器. 不对外公开: 直接通过构建器创建的线程不会计入调度器的存活数
+     */
+    private Thread.Builder.OfVirtual builder() {
+        if (BUILDER == null) {
+            throw UNSUPPORTED;
+        }
+        try {
+            return (Thread.Builder.OfVirtual) BUILDER.newInstance(this);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 启动一个运行在本调度器上的 JDK 虚拟线程
+     */
+    public Thread start(Runnable task) {
+        Thread.Builder.OfVirtual builder = builder();
+        admit();
+        try {
+            return builder.start(tracked(task));
+        } catch (RuntimeException | Error e) {
+            scheduler.terminated();
+            throw e;
+        }
+    }
+
+    /**
+     * 创建运行在本调度器上的 JDK 虚拟线程的工厂, 可用于 {@link java.util.concurrent.Executors#newThreadPerTaskExecutor}.
+     * 线程在创建时就计入调度器的存活数, 创建后应当立即启动.
+     */
+    public ThreadFactory factory() {
+        ThreadFactory factory = builder().factory();
+        return task -> {
+            admit();
+            try {
+                return factory.newThread(tracked(task));
+            } catch (RuntimeException | Error e) {
+                scheduler.terminated();
+                throw e;
+            }
+        };
+    }
+
+    public SimpleVirtualScheduler scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 由 JDK 虚拟线程在启动、被唤醒和让出时调用, 参数为它的 runContinuation
+     */
+    @Override
+    public void execute(Runnable runContinuation) {
+        SimpleVirtualThread task = SimpleVirtualThread.direct(runContinuation);
+        if (group != null) {
+            task.setGroup(group);
+        }
+        try {
+            scheduler.schedule(task, currentCarrier());
+        } catch (RejectedExecutionException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // JDK 虚拟线程只处理 RejectedExecutionException
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 新线程计入调度器的存活数, 调度器关闭期间拒绝载体以外的线程创建新线程
+     */
+    private void admit() {
+        scheduler.admitExternal(currentCarrier());
+    }
+
+    /**
+     * 任务结束时从调度器的存活数中减去
+     */
+    private Runnable tracked(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                scheduler.terminated();
+            }
+        };
+    }
+
+    /**
+     * 当前所在的载体线程, 包括挂载在载体上的 JDK 虚拟线程
+     */
+    private static CarrierThread currentCarrier() {
+        if (CURRENT_CARRIER == null) {
+            return CarrierThread.current();
+        }
+        try {
+            return (Thread) CURRENT_CARRIER.invokeExact() instanceof CarrierThread carrier ? carrier : null;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
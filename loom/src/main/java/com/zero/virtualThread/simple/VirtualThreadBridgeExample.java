@@ -0,0 +1,111 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * {@link VirtualThreadBridge} 示例: 同样的 JDK 虚拟线程代码分别运行在 JDK 默认的调度器(ForkJoinPool)和 {@link SimpleVirtualScheduler} 上.
+ *  - handoff: 成对的虚拟线程通过 {@link SynchronousQueue} 来回传递消息, 阻塞与唤醒都由 JDK 的 LockSupport.park/unpark 完成.
+ *  - sleep: 大量虚拟线程交替进行一小段计算和 Thread.sleep.
+ *  - 运行在 SimpleVirtualScheduler 上时同时输出调度器的指标: 挂载次数以及从提交到开始运行的延迟.
+ * 载体数与 JDK 虚拟线程调度器的并行度一致,
+ * 运行参数 --add-opens java.base/java.lang=ALL-UNNAMED, [pairs=1000] [rounds=1000] [sleepers=10000]
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/19 03:50 </p>
+ */
+public class VirtualThreadBridgeExample {
+    private static final int CARRIERS = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+            Runtime.getRuntime().availableProcessors());
+
+    public static void main(String[] args) throws InterruptedException {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int sleepers = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        if (!VirtualThreadBridge.isSupported()) {
+            System.out.println("run with --add-opens java.base/java.lang=ALL-UNNAMED");
+            return;
+        }
+        try (var scheduler = new SimpleVirtualScheduler(CARRIERS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+            scheduler.run();
+            // 虚拟线程的 toString 中包含当前的载体线程
+            new VirtualThreadBridge(scheduler).start(() -> System.out.println("mounted: " + Thread.currentThread())).join();
+        }
+        // 第一轮作为预热
+        for (int round = 0; round < 2; round++) {
+            for (String workload : new String[]{"handoff", "sleep"}) {
+                long jdk = run(Thread.ofVirtual().factory(), workload, pairs, rounds, sleepers);
+                // 每次使用新的调度器, 指标只包含本次运行
+                try (var scheduler = new SimpleVirtualScheduler(CARRIERS, SimpleVirtualScheduler.DispatchMode.WORK_STEALING)) {
+                    scheduler.run();
+                    long simple = run(new VirtualThreadBridge(scheduler).factory(), workload, pairs, rounds, sleepers);
+                    SchedulerMetrics metrics = scheduler.metrics();
+                    if (round > 0) {
+                        System.out.printf("[%s] jdk: %d ms, simple: %d ms (%,d mounts, schedule-to-run p50 %d us, p99 %d us)%n",
+                                workload, jdk / 1_000_000, simple / 1_000_000, metrics.getDispatchedCount(),
+                                metrics.getScheduleToRunP50Micros(), metrics.getScheduleToRunP99Micros());
+                    }
+                }
+            }
+        }
+    }
+
+    private static long run(ThreadFactory factory, String workload, int pairs, int rounds, int sleepers) {
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(factory)) {
+            switch (workload) {
+                case "handoff" -> {
+                    for (int p = 0; p < pairs; p++) {
+                        var ping = new SynchronousQueue<Integer>();
+                        var pong = new SynchronousQueue<Integer>();
+                        executor.execute(() -> {
+                            try {
+                                for (int i = 0; i < rounds; i++) {
+                                    ping.put(i);
+                                    pong.take();
+                                }
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                        executor.execute(() -> {
+                            try {
+                                for (int i = 0; i < rounds; i++) {
+                                    pong.put(ping.take());
+                                }
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                    }
+                }
+                case "sleep" -> {
+                    for (int t = 0; t < sleepers; t++) {
+                        executor.execute(() -> {
+                            try {
+                                for (int i = 0; i < 5; i++) {
+                                    spin(20_000);
+                                    Thread.sleep(10);
+                                }
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+                    }
+                }
+                default -> throw new IllegalArgumentException(workload);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /// 忙等一段时间, 模拟计算
+    private static void spin(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
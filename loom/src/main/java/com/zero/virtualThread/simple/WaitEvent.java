@@ -0,0 +1,32 @@
+package com.zero.virtualThread.simple;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: {@link WaitingOperate} 的一次等待, 持续时间为实际等待时长.
+ *  - lateness 为实际等待时长超出预期的部分, 包括时间轮的精度误差以及到期后重新排队、挂载的延迟.
+ *  - 默认只记录超过 1ms 的等待.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 19:58 </p>
+ */
+@Name("com.zero.simple.Wait")
+@Label("Simple Virtual Thread Wait")
+@Category({"Simple Virtual Thread"})
+@Description("A timed wait of a SimpleVirtualThread and how late it was resumed")
+@Threshold("1 ms")
+final class WaitEvent extends Event {
+    @Label("Virtual Thread Id")
+    int vt;
+
+    @Label("Event Name")
+    String name;
+
+    @Label("Requested")
+    @Timespan(Timespan.NANOSECONDS)
+    long requested;
+
+    @Label("Lateness")
+    @Timespan(Timespan.NANOSECONDS)
+    long lateness;
+}
@@ -0,0 +1,196 @@
+package com.zero.virtualThread.simple;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 同步原语的等待队列, 供 {@link SimpleMutex}、{@link SimpleCondition}、{@link SimpleSemaphore} 使用.
+ *  - 在 {@link SimpleVirtualThread} 中等待时通过 {@link SimpleVirtualThread#park()} 让出载体, 被唤醒后经由调度器重新调度;
+ *    在普通线程中等待时退化为 {@link LockSupport#park}.
+ *  - 每次等待对应一个节点, 唤醒方通过 CAS 将节点从 WAITING 改为 SIGNALLED 后才 unpark, 自行放弃等待的节点
+ *    改为 CANCELLED, 由唤醒方在出队时跳过, 因此不会出现一次唤醒落在已经不再等待的节点上而丢失.
+ *    等待期间抛出异常(如虚拟线程被取消时的 CancellationException)同样会放弃节点.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 22:30 </p>
+ */
+final class WaitQueue {
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 等待直到 tryAcquire 成功
+     * 先入队再重试一次, 与唤醒方 "先释放资源再出队" 相对应, 两者至少有一方能看到对方的写入.
+     */
+    void await(BooleanSupplier tryAcquire) {
+        while (true) {
+            Waiter waiter = new Waiter();
+            waiters.add(waiter);
+            if (tryAcquire.getAsBoolean()) {
+                abandon(waiter);
+                return;
+            }
+            try {
+                waiter.await();
+            } catch (RuntimeException | Error e) {
+                abandon(waiter);
+                throw e;
+            }
+            if (tryAcquire.getAsBoolean()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 限时等待直到 tryAcquire 成功
+     * @return 超时前是否成功
+     */
+    boolean await(BooleanSupplier tryAcquire, long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (true) {
+            Waiter waiter = new Waiter();
+            waiters.add(waiter);
+            if (tryAcquire.getAsBoolean()) {
+                abandon(waiter);
+                return true;
+            }
+            boolean signalled;
+            try {
+                signalled = waiter.await(deadline - System.nanoTime());
+            } catch (RuntimeException | Error e) {
+                abandon(waiter);
+                throw e;
+            }
+            if (!signalled) {
+                abandon(waiter);
+                return tryAcquire.getAsBoolean();
+            }
+            if (tryAcquire.getAsBoolean()) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 放弃等待: 节点已经被唤醒时, 把这次唤醒让给下一个等待者
+     */
+    private void abandon(Waiter waiter) {
+        if (!waiter.cancel()) {
+            signal();
+        }
+    }
+
+    /**
+     * 入队并等待被唤醒, 不检查任何条件. 调用方需要在入队之后才释放其他线程用来唤醒它的资源.
+     */
+    Waiter enqueue() {
+        Waiter waiter = new Waiter();
+        waiters.add(waiter);
+        return waiter;
+    }
+
+    /**
+     * 唤醒一个等待者
+     * @return 是否唤醒了等待者
+     */
+    boolean signal() {
+        for (Waiter waiter; (waiter = waiters.poll()) != null; ) {
+            if (waiter.signal()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 唤醒所有等待者
+     */
+    void signalAll() {
+        for (Waiter waiter; (waiter = waiters.poll()) != null; ) {
+            waiter.signal();
+        }
+    }
+
+    boolean hasWaiters() {
+        return !waiters.isEmpty();
+    }
+
+    /**
+     * 等待节点
+     */
+    static final class Waiter {
+        private static final int WAITING = 0;
+        private static final int SIGNALLED = 1;
+        private static final int CANCELLED = 2;
+        private static final VarHandle STATUS;
+        static {
+            try {
+                STATUS = MethodHandles.lookup().findVarHandle(Waiter.class, "status", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        /// 等待的虚拟线程, 在普通线程中等待时为 null
+        private final SimpleVirtualThread vt = SimpleVirtualThread.current();
+        private final Thread thread = vt == null ? Thread.currentThread() : null;
+        private volatile int status = WAITING;
+
+        /**
+         * 阻塞直到被唤醒
+         */
+        void await() {
+            while (status == WAITING) {
+                if (vt != null) {
+                    SimpleVirtualThread.park();
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+        }
+
+        /**
+         * 限时阻塞直到被唤醒
+         * @return 超时返回 false
+         */
+        boolean await(long nanos) {
+            long deadline = System.nanoTime() + nanos;
+            while (status == WAITING) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                if (vt != null) {
+                    SimpleVirtualThread.parkNanos(remaining);
+                } else {
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+            return true;
+        }
+
+        boolean signal() {
+            if (!STATUS.compareAndSet(this, WAITING, SIGNALLED)) {
+                return false;
+            }
+            if (vt != null) {
+                vt.unpark();
+            } else {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        /**
+         * 放弃等待
+         * @return 返回 false 表示已经被唤醒
+         */
+        boolean cancel() {
+            return STATUS.compareAndSet(this, WAITING, CANCELLED);
+        }
+    }
+}
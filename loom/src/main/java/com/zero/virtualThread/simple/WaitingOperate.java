@@ -1,13 +1,6 @@
 package com.zero.virtualThread.simple;
 
-import jdk.internal.vm.Continuation;
-
 import java.time.Duration;
-import java.util.Timer;
-import java.util.TimerTask;
-
-import static com.zero.virtualThread.simple.SimpleVirtualScheduler.CURRENT_VT;
-import static com.zero.virtualThread.simple.SimpleVirtualThread.SCOPE;
 
 
 /**
@@ -25,21 +18,21 @@ public class WaitingOperate {
      * @param scheduler 调度器
      */
     public static void preform(String eventName, Duration duration, SimpleVirtualScheduler scheduler) {
-        System.out.println("Waiting for " + eventName + ", for " + duration.toString());
-        // 获取当前正在运行的虚拟线程
-        SimpleVirtualThread virtualThread = CURRENT_VT.get();
-
-        // 注册定时器，阻塞一定的时长后，将虚拟线程再次加入调度器
-        var timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                scheduler.schedule(virtualThread);
-                timer.cancel();
-            }
-        }, duration.toMillis());
-
-        // 将虚拟线程暂停运行，这将从平台线程中卸载下来.
-        Continuation.yield(SCOPE);
+        SimpleVirtualThread vt = SimpleVirtualThread.current();
+        Tracer.wait(vt, eventName, duration.toNanos());
+        WaitEvent event = new WaitEvent();
+        event.begin();
+        long start = System.nanoTime();
+        // 在调度器的时间轮上注册定时任务并将虚拟线程从平台线程中卸载下来，到期后虚拟线程再次加入调度器.
+        // 所有虚拟线程共用时间轮的一个平台线程，而不是每次等待都创建一个 Timer 线程.
+        scheduler.timer().sleep(duration);
+        event.end();
+        if (event.shouldCommit()) {
+            event.vt = vt == null ? 0 : vt.id();
+            event.name = eventName;
+            event.requested = duration.toNanos();
+            event.lateness = Math.max(0, System.nanoTime() - start - event.requested);
+            event.commit();
+        }
     }
 }
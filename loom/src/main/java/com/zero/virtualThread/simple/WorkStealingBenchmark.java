@@ -0,0 +1,54 @@
+package com.zero.virtualThread.simple;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对比调度线程 + 固定线程池({@link SimpleVirtualScheduler.DispatchMode#PARK}) 与
+ * 工作窃取({@link SimpleVirtualScheduler.DispatchMode#WORK_STEALING}) 两种调度方式的吞吐量.
+ *  - 与 {@link MultiExample} 类似，由主线程提交大量虚拟线程，每个虚拟线程在执行时再派生一个子虚拟线程.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 11:40 </p>
+ */
+public class WorkStealingBenchmark {
+    /// 载体线程数
+    private static final int THREADS = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int count : new int[]{10_000, 100_000, 1_000_000}) {
+            for (SimpleVirtualScheduler.DispatchMode mode : new SimpleVirtualScheduler.DispatchMode[]{
+                    SimpleVirtualScheduler.DispatchMode.PARK, SimpleVirtualScheduler.DispatchMode.WORK_STEALING}) {
+                long elapsed = bench(mode, count);
+                System.out.printf("[%s] %,d continuations: %d ms, %,.0f continuations/s%n",
+                        mode, count * 2, elapsed / 1_000_000, count * 2 * 1e9 / elapsed);
+            }
+        }
+    }
+
+    private static long bench(SimpleVirtualScheduler.DispatchMode mode, int count) throws InterruptedException {
+        try (var scheduler = new SimpleVirtualScheduler(THREADS, mode)) {
+            new Thread(scheduler).start();
+            while (!scheduler.isRunning()) {
+                Thread.onSpinWait();
+            }
+            var remaining = new AtomicInteger(count * 2);
+            var done = new CountDownLatch(1);
+            Runnable finish = () -> {
+                if (remaining.decrementAndGet() == 0) {
+                    done.countDown();
+                }
+            };
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                scheduler.schedule(new SimpleVirtualThread(() -> {
+                    // 由载体线程派生子虚拟线程
+                    scheduler.schedule(new SimpleVirtualThread(finish));
+                    finish.run();
+                }));
+            }
+            done.await();
+            return System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.zero.virtualThread.simple;
+
+import jdk.jfr.*;
+
+/**
+ * JFR 事件: 虚拟线程 park 并让出载体, 用于统计让出次数.
+ *  - 该事件数量与 park 次数相同, 默认关闭, 需要在 JFR 配置中显式开启.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 19:55 </p>
+ */
+@Name("com.zero.simple.Yield")
+@Label("Simple Virtual Thread Yield")
+@Category({"Simple Virtual Thread"})
+@Description("A SimpleVirtualThread parked and yielded its carrier")
+@StackTrace(false)
+@Enabled(false)
+final class YieldEvent extends Event {
+    @Label("Virtual Thread Id")
+    int vt;
+}
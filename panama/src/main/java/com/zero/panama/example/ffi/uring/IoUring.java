@@ -0,0 +1,369 @@
+package com.zero.panama.example.ffi.uring;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.VarHandle;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+
+/**
+ * 通过 Panama 手动映射的 Linux io_uring.
+ *  - io_uring_setup / io_uring_enter 没有 glibc 封装, 通过可变参数的 syscall(2) 调用.
+ *  - 提交队列(SQ)、完成队列(CQ) 以及 SQE 数组都是与内核共享的内存, 通过 mmap 映射后包装为 {@link MemorySegment}.
+ *  - 结构体 io_uring_params / io_uring_sqe / io_uring_cqe 用 {@link MemoryLayout} 描述, 字段通过 {@link VarHandle} 读写,
+ *    SQE 按 "基础偏移量 + 字段偏移量" 直接写入映射内存, 准备请求时不会产生任何中间对象.
+ *  - 与内核共享的 head/tail 指针使用 acquire/release 语义读写.
+ * 该类不是线程安全的, 一个 ring 只能由一个线程驱动.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 17:05 </p>
+ */
+public class IoUring implements AutoCloseable {
+    private static final long SYS_IO_URING_SETUP = 425;
+    private static final long SYS_IO_URING_ENTER = 426;
+    private static final int IORING_OFF_SQ_RING = 0;
+    private static final long IORING_OFF_CQ_RING = 0x8000000L;
+    private static final long IORING_OFF_SQES = 0x10000000L;
+    private static final int IORING_FEAT_SINGLE_MMAP = 1;
+    private static final int IORING_ENTER_GETEVENTS = 1;
+    private static final byte IORING_OP_READ = 22;
+    private static final int PROT_READ_WRITE = 0x1 | 0x2;
+    private static final int MAP_SHARED_POPULATE = 0x01 | 0x8000;
+    private static final int EINTR = 4;
+
+    /// struct io_sqring_offsets
+    static final StructLayout IO_SQRING_OFFSETS = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("head"),
+            ValueLayout.JAVA_INT.withName("tail"),
+            ValueLayout.JAVA_INT.withName("ring_mask"),
+            ValueLayout.JAVA_INT.withName("ring_entries"),
+            ValueLayout.JAVA_INT.withName("flags"),
+            ValueLayout.JAVA_INT.withName("dropped"),
+            ValueLayout.JAVA_INT.withName("array"),
+            ValueLayout.JAVA_INT.withName("resv1"),
+            ValueLayout.JAVA_LONG.withName("user_addr"));
+    /// struct io_cqring_offsets
+    static final StructLayout IO_CQRING_OFFSETS = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("head"),
+            ValueLayout.JAVA_INT.withName("tail"),
+            ValueLayout.JAVA_INT.withName("ring_mask"),
+            ValueLayout.JAVA_INT.withName("ring_entries"),
+            ValueLayout.JAVA_INT.withName("overflow"),
+            ValueLayout.JAVA_INT.withName("cqes"),
+            ValueLayout.JAVA_INT.withName("flags"),
+            ValueLayout.JAVA_INT.withName("resv1"),
+            ValueLayout.JAVA_LONG.withName("user_addr"));
+    /// struct io_uring_params
+    static final StructLayout IO_URING_PARAMS = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("sq_entries"),
+            ValueLayout.JAVA_INT.withName("cq_entries"),
+            ValueLayout.JAVA_INT.withName("flags"),
+            ValueLayout.JAVA_INT.withName("sq_thread_cpu"),
+            ValueLayout.JAVA_INT.withName("sq_thread_idle"),
+            ValueLayout.JAVA_INT.withName("features"),
+            ValueLayout.JAVA_INT.withName("wq_fd"),
+            MemoryLayout.sequenceLayout(3, ValueLayout.JAVA_INT).withName("resv"),
+            IO_SQRING_OFFSETS.withName("sq_off"),
+            IO_CQRING_OFFSETS.withName("cq_off"));
+    /// struct io_uring_sqe, 64 字节
+    public static final StructLayout IO_URING_SQE = MemoryLayout.structLayout(
+            ValueLayout.JAVA_BYTE.withName("opcode"),
+            ValueLayout.JAVA_BYTE.withName("flags"),
+            ValueLayout.JAVA_SHORT.withName("ioprio"),
+            ValueLayout.JAVA_INT.withName("fd"),
+            ValueLayout.JAVA_LONG.withName("off"),
+            ValueLayout.JAVA_LONG.withName("addr"),
+            ValueLayout.JAVA_INT.withName("len"),
+            ValueLayout.JAVA_INT.withName("rw_flags"),
+            ValueLayout.JAVA_LONG.withName("user_data"),
+            ValueLayout.JAVA_SHORT.withName("buf_index"),
+            ValueLayout.JAVA_SHORT.withName("personality"),
+            ValueLayout.JAVA_INT.withName("splice_fd_in"),
+            ValueLayout.JAVA_LONG.withName("addr3"),
+            ValueLayout.JAVA_LONG.withName("__pad2"));
+    /// struct io_uring_cqe, 16 字节
+    public static final StructLayout IO_URING_CQE = MemoryLayout.structLayout(
+            ValueLayout.JAVA_LONG.withName("user_data"),
+            ValueLayout.JAVA_INT.withName("res"),
+            ValueLayout.JAVA_INT.withName("flags"));
+
+    private static final VarHandle SQE_OPCODE = IO_URING_SQE.varHandle(groupElement("opcode"));
+    private static final VarHandle SQE_FLAGS = IO_URING_SQE.varHandle(groupElement("flags"));
+    private static final VarHandle SQE_IOPRIO = IO_URING_SQE.varHandle(groupElement("ioprio"));
+    private static final VarHandle SQE_FD = IO_URING_SQE.varHandle(groupElement("fd"));
+    private static final VarHandle SQE_OFF = IO_URING_SQE.varHandle(groupElement("off"));
+    private static final VarHandle SQE_ADDR = IO_URING_SQE.varHandle(groupElement("addr"));
+    private static final VarHandle SQE_LEN = IO_URING_SQE.varHandle(groupElement("len"));
+    private static final VarHandle SQE_RW_FLAGS = IO_URING_SQE.varHandle(groupElement("rw_flags"));
+    private static final VarHandle SQE_USER_DATA = IO_URING_SQE.varHandle(groupElement("user_data"));
+    private static final VarHandle SQE_BUF_INDEX = IO_URING_SQE.varHandle(groupElement("buf_index"));
+    private static final VarHandle SQE_PERSONALITY = IO_URING_SQE.varHandle(groupElement("personality"));
+    private static final VarHandle SQE_SPLICE_FD_IN = IO_URING_SQE.varHandle(groupElement("splice_fd_in"));
+    private static final VarHandle SQE_ADDR3 = IO_URING_SQE.varHandle(groupElement("addr3"));
+    private static final VarHandle SQE_PAD2 = IO_URING_SQE.varHandle(groupElement("__pad2"));
+    private static final VarHandle CQE_USER_DATA = IO_URING_CQE.varHandle(groupElement("user_data"));
+    private static final VarHandle CQE_RES = IO_URING_CQE.varHandle(groupElement("res"));
+    /// 读写共享内存中 u32 的 head/tail/mask 等字段: (MemorySegment, long offset)
+    private static final VarHandle U32 = ValueLayout.JAVA_INT.varHandle();
+
+    private static final StructLayout CAPTURE_STATE = Linker.Option.captureStateLayout();
+    private static final VarHandle ERRNO = CAPTURE_STATE.varHandle(groupElement("errno"));
+
+    private static final MethodHandle IO_URING_SETUP;
+    private static final MethodHandle IO_URING_ENTER;
+    private static final MethodHandle MMAP;
+    private static final MethodHandle MUNMAP;
+    private static final MethodHandle CLOSE;
+    static {
+        Linker linker = Linker.nativeLinker();
+        SymbolLookup lookup = linker.defaultLookup();
+        MemorySegment syscall = lookup.findOrThrow("syscall");
+        Linker.Option errno = Linker.Option.captureCallState("errno");
+        // long syscall(long number, ...): 从第二个参数开始为可变参数
+        // io_uring_setup(u32 entries, struct io_uring_params *p)
+        IO_URING_SETUP = linker.downcallHandle(syscall,
+                FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT, ValueLayout.ADDRESS),
+                Linker.Option.firstVariadicArg(1), errno);
+        // io_uring_enter(unsigned int fd, u32 to_submit, u32 min_complete, u32 flags, const sigset_t *sig, size_t sigsz)
+        IO_URING_ENTER = linker.downcallHandle(syscall,
+                FunctionDescriptor.of(ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT, ValueLayout.JAVA_INT,
+                        ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG),
+                Linker.Option.firstVariadicArg(1), errno);
+        // void *mmap(void *addr, size_t length, int prot, int flags, int fd, off_t offset)
+        MMAP = linker.downcallHandle(lookup.findOrThrow("mmap"),
+                FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_INT,
+                        ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_LONG));
+        // int munmap(void *addr, size_t length)
+        MUNMAP = linker.downcallHandle(lookup.findOrThrow("munmap"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_LONG));
+        // int close(int fd)
+        CLOSE = linker.downcallHandle(lookup.findOrThrow("close"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT));
+    }
+
+    private final Arena arena = Arena.ofConfined();
+    private final MemorySegment errno = arena.allocate(CAPTURE_STATE);
+    private final int ringFd;
+    /// 与内核共享的 SQ/CQ 环以及 SQE 数组
+    private final MemorySegment sqRing;
+    private final MemorySegment cqRing;
+    private final MemorySegment sqes;
+    private final boolean singleMmap;
+    private final int sqEntries;
+    private final int sqMask;
+    private final int cqMask;
+    /// SQ/CQ 中各字段在映射内存中的偏移量
+    private final long sqHeadOff, sqTailOff, sqArrayOff;
+    private final long cqHeadOff, cqTailOff, cqesOff;
+
+    /// 已填充但尚未发布给内核的 SQ tail
+    private int sqTail;
+    /// 已经发布、但还没通过 io_uring_enter 提交的 SQE 数
+    private int toSubmit;
+    /// io_uring_enter 的调用次数
+    private long enterCalls;
+
+    /**
+     * 创建 io_uring 实例
+     * @param entries SQ 的大小, 会被内核向上取整为2的幂
+     */
+    public IoUring(int entries) {
+        MemorySegment params = arena.allocate(IO_URING_PARAMS);
+        long fd = invokeSyscall(IO_URING_SETUP, SYS_IO_URING_SETUP, entries, params);
+        ringFd = (int) fd;
+
+        sqEntries = params.get(ValueLayout.JAVA_INT, IO_URING_PARAMS.byteOffset(groupElement("sq_entries")));
+        int cqEntries = params.get(ValueLayout.JAVA_INT, IO_URING_PARAMS.byteOffset(groupElement("cq_entries")));
+        int features = params.get(ValueLayout.JAVA_INT, IO_URING_PARAMS.byteOffset(groupElement("features")));
+        sqHeadOff = sqOffset(params, "head");
+        sqTailOff = sqOffset(params, "tail");
+        sqArrayOff = sqOffset(params, "array");
+        cqHeadOff = cqOffset(params, "head");
+        cqTailOff = cqOffset(params, "tail");
+        cqesOff = cqOffset(params, "cqes");
+
+        long sqRingSize = sqArrayOff + (long) sqEntries * Integer.BYTES;
+        long cqRingSize = cqesOff + cqEntries * IO_URING_CQE.byteSize();
+        singleMmap = (features & IORING_FEAT_SINGLE_MMAP) != 0;
+        if (singleMmap) {
+            // 新内核中 SQ 与 CQ 位于同一块映射内存
+            sqRing = cqRing = mmap(Math.max(sqRingSize, cqRingSize), IORING_OFF_SQ_RING);
+        } else {
+            sqRing = mmap(sqRingSize, IORING_OFF_SQ_RING);
+            cqRing = mmap(cqRingSize, IORING_OFF_CQ_RING);
+        }
+        sqes = mmap(sqEntries * IO_URING_SQE.byteSize(), IORING_OFF_SQES);
+        sqMask = (int) U32.get(sqRing, sqOffset(params, "ring_mask"));
+        cqMask = (int) U32.get(cqRing, cqOffset(params, "ring_mask"));
+        sqTail = (int) U32.get(sqRing, sqTailOff);
+    }
+
+    /**
+     * 准备一个读请求, 需要调用 {@link #submit} 后才会交给内核
+     * @param fd 文件描述符
+     * @param buffer 读取的目标内存, 必须在请求完成前保持有效
+     * @param offset 文件偏移量
+     * @param userData 原样出现在对应的 CQE 中
+     * @return SQ 已满时返回 false
+     */
+    public boolean prepareRead(int fd, MemorySegment buffer, long offset, long userData) {
+        int head = (int) U32.getAcquire(sqRing, sqHeadOff);
+        if (sqTail - head == sqEntries) {
+            return false;
+        }
+        int index = sqTail & sqMask;
+        long sqe = index * IO_URING_SQE.byteSize();
+        SQE_OPCODE.set(sqes, sqe, IORING_OP_READ);
+        SQE_FLAGS.set(sqes, sqe, (byte) 0);
+        SQE_IOPRIO.set(sqes, sqe, (short) 0);
+        SQE_FD.set(sqes, sqe, fd);
+        SQE_OFF.set(sqes, sqe, offset);
+        SQE_ADDR.set(sqes, sqe, buffer.address());
+        SQE_LEN.set(sqes, sqe, (int) buffer.byteSize());
+        SQE_RW_FLAGS.set(sqes, sqe, 0);
+        SQE_USER_DATA.set(sqes, sqe, userData);
+        SQE_BUF_INDEX.set(sqes, sqe, (short) 0);
+        SQE_PERSONALITY.set(sqes, sqe, (short) 0);
+        SQE_SPLICE_FD_IN.set(sqes, sqe, 0);
+        SQE_ADDR3.set(sqes, sqe, 0L);
+        SQE_PAD2.set(sqes, sqe, 0L);
+        U32.set(sqRing, sqArrayOff + (long) index * Integer.BYTES, index);
+        sqTail++;
+        return true;
+    }
+
+    /**
+     * 发布所有已准备的请求, 并通过一次 io_uring_enter 提交给内核
+     * @param minComplete 至少等待完成的请求数, 0 表示不等待
+     * @return 内核接收的请求数
+     */
+    public int submit(int minComplete) {
+        int published = sqTail - (int) U32.get(sqRing, sqTailOff);
+        // release: 保证 SQE 的内容先于 tail 对内核可见
+        U32.setRelease(sqRing, sqTailOff, sqTail);
+        toSubmit += published;
+        if (toSubmit == 0 && minComplete == 0) {
+            return 0;
+        }
+        int flags = minComplete > 0 ? IORING_ENTER_GETEVENTS : 0;
+        while (true) {
+            enterCalls++;
+            long n = invokeEnter(toSubmit, minComplete, flags);
+            if (n >= 0) {
+                toSubmit -= (int) n;
+                return (int) n;
+            }
+            if (-n != EINTR) {
+                throw new IllegalStateException("io_uring_enter failed, errno: " + -n);
+            }
+        }
+    }
+
+    /**
+     * 处理所有已完成的请求
+     * @param handler 完成回调
+     * @return 处理的 CQE 数
+     */
+    public int reap(CompletionHandler handler) {
+        int head = (int) U32.get(cqRing, cqHeadOff);
+        // acquire: 保证读到 tail 之后再读取 CQE 的内容
+        int tail = (int) U32.getAcquire(cqRing, cqTailOff);
+        int count = 0;
+        while (head != tail) {
+            long cqe = cqesOff + (head & cqMask) * IO_URING_CQE.byteSize();
+            handler.complete((long) CQE_USER_DATA.get(cqRing, cqe), (int) CQE_RES.get(cqRing, cqe));
+            head++;
+            count++;
+        }
+        // release: 通知内核这些 CQE 已经消费, 可以复用
+        U32.setRelease(cqRing, cqHeadOff, head);
+        return count;
+    }
+
+    /// SQ 中可以继续准备的请求数
+    public int sqSpace() {
+        return sqEntries - (sqTail - (int) U32.getAcquire(sqRing, sqHeadOff));
+    }
+
+    public long enterCalls() {
+        return enterCalls;
+    }
+
+    @Override
+    public void close() {
+        try {
+            int rc = (int) MUNMAP.invokeExact(sqes, sqes.byteSize());
+            rc = (int) MUNMAP.invokeExact(sqRing, sqRing.byteSize());
+            if (!singleMmap) {
+                rc = (int) MUNMAP.invokeExact(cqRing, cqRing.byteSize());
+            }
+            rc = (int) CLOSE.invokeExact(ringFd);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        } finally {
+            arena.close();
+        }
+    }
+
+    private long invokeEnter(int toSubmit, int minComplete, int flags) {
+        try {
+            long n = (long) IO_URING_ENTER.invokeExact(errno, SYS_IO_URING_ENTER, ringFd, toSubmit, minComplete, flags, MemorySegment.NULL, 0L);
+            return n < 0 ? -(int) ERRNO.get(errno, 0L) : n;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long invokeSyscall(MethodHandle handle, long number, int entries, MemorySegment params) {
+        try {
+            long n = (long) handle.invokeExact(errno, number, entries, params);
+            if (n < 0) {
+                throw new IllegalStateException("io_uring_setup failed, errno: " + (int) ERRNO.get(errno, 0L));
+            }
+            return n;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 映射与内核共享的内存
+     */
+    private MemorySegment mmap(long size, long offset) {
+        try {
+            MemorySegment address = (MemorySegment) MMAP.invokeExact(MemorySegment.NULL, size, PROT_READ_WRITE,
+                    MAP_SHARED_POPULATE, ringFd, offset);
+            // MAP_FAILED: (void *) -1
+            if (address.address() == -1L) {
+                throw new IllegalStateException("mmap failed, offset: " + offset);
+            }
+            return address.reinterpret(size);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long sqOffset(MemorySegment params, String field) {
+        return params.get(ValueLayout.JAVA_INT, IO_URING_PARAMS.byteOffset(groupElement("sq_off"), groupElement(field)));
+    }
+
+    private static long cqOffset(MemorySegment params, String field) {
+        return params.get(ValueLayout.JAVA_INT, IO_URING_PARAMS.byteOffset(groupElement("cq_off"), groupElement(field)));
+    }
+
+    /**
+     * 请求完成回调
+     */
+    @FunctionalInterface
+    public interface CompletionHandler {
+        /**
+         * @param userData 提交请求时传入的 userData
+         * @param res 请求结果, 读请求为读取的字节数, 失败时为 -errno
+         */
+        void complete(long userData, int res);
+    }
+}
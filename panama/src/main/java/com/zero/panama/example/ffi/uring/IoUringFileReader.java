@@ -0,0 +1,140 @@
+package com.zero.panama.example.ffi.uring;
+
+import jdk.internal.vm.Continuation;
+import jdk.internal.vm.ContinuationScope;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * 基于 io_uring 的异步文件读取.
+ *  - {@link #read} 只能在 {@link #spawn} 创建的协程中调用: 准备好 SQE 后让出协程, 直到对应的 CQE 到达才被恢复,
+ *    等待期间不会占用任何线程.
+ *  - {@link #run} 是驱动循环: 先运行所有就绪的协程, 它们产生的读请求只在批次结束时通过一次 io_uring_enter
+ *    统一提交并等待完成, 因此成千上万个同时进行的读取可以共享一次系统调用.
+ *  - 与 {@link IoUring} 一样, 整个实例由调用 {@link #run} 的线程独占.
+ * 在 loom 模块中由 SimpleVirtualScheduler.ioUring() 提供的 IoUringPoller 把同样的读请求交给调度器的虚拟线程, 不需要本类的驱动循环.
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 17:40 </p>
+ */
+public class IoUringFileReader implements AutoCloseable {
+    private static final ContinuationScope SCOPE = new ContinuationScope("io_uring");
+
+    private final IoUring ring;
+    /// 就绪队列
+    private final ArrayDeque<Continuation> runnable = new ArrayDeque<>();
+    /// 按 userData(槽位下标) 记录等待中的协程和结果
+    private Continuation[] waiters;
+    private int[] results;
+    /// 空闲槽位栈
+    private int[] freeSlots;
+    private int freeTop;
+    /// 已提交、尚未完成的读请求数
+    private int inflight;
+    private long completed;
+
+    /**
+     * @param entries SQ 的大小, 同时也是单次 io_uring_enter 最多能提交的请求数
+     */
+    public IoUringFileReader(int entries) {
+        this.ring = new IoUring(entries);
+        this.waiters = new Continuation[entries];
+        this.results = new int[entries];
+        this.freeSlots = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            freeSlots[i] = entries - 1 - i;
+        }
+        this.freeTop = entries;
+    }
+
+    /**
+     * 创建一个协程, 它会在下一次 {@link #run} 中开始执行
+     */
+    public void spawn(Runnable task) {
+        runnable.add(new Continuation(SCOPE, task));
+    }
+
+    /**
+     * 从文件的指定位置读取数据, 阻塞当前协程直到读取完成
+     * @param fd 文件描述符
+     * @param segment 目标内存, 最多读取 segment.byteSize() 个字节
+     * @param offset 文件偏移量
+     * @return 读取的字节数, 失败时为 -errno
+     */
+    public int read(int fd, MemorySegment segment, long offset) {
+        Continuation cont = Continuation.getCurrentContinuation(SCOPE);
+        if (cont == null) {
+            throw new IllegalStateException("read must be called in a task spawned by IoUringFileReader");
+        }
+        int slot = allocateSlot();
+        // SQ 已满: 先把已准备的请求提交给内核, 腾出空间
+        while (!ring.prepareRead(fd, segment, offset, slot)) {
+            ring.submit(0);
+        }
+        waiters[slot] = cont;
+        inflight++;
+        Continuation.yield(SCOPE);
+        int res = results[slot];
+        freeSlots[freeTop++] = slot;
+        return res;
+    }
+
+    /**
+     * 驱动所有协程直到全部结束
+     */
+    public void run() {
+        while (!runnable.isEmpty() || inflight > 0) {
+            Continuation cont;
+            while ((cont = runnable.poll()) != null) {
+                cont.run();
+            }
+            if (inflight > 0) {
+                // 本批次产生的所有读请求一次性提交, 并至少等待一个完成
+                ring.submit(1);
+                ring.reap(this::complete);
+            }
+        }
+    }
+
+    private void complete(long userData, int res) {
+        int slot = (int) userData;
+        results[slot] = res;
+        Continuation cont = waiters[slot];
+        waiters[slot] = null;
+        inflight--;
+        completed++;
+        runnable.add(cont);
+    }
+
+    /// 槽位数量限制了同时进行的读请求数, 不够时按2倍扩容
+    private int allocateSlot() {
+        if (freeTop == 0) {
+            int size = waiters.length;
+            waiters = Arrays.copyOf(waiters, size * 2);
+            results = Arrays.copyOf(results, size * 2);
+            freeSlots = new int[size * 2];
+            for (int i = 0; i < size; i++) {
+                freeSlots[i] = size * 2 - 1 - i;
+            }
+            freeTop = size;
+        }
+        return freeSlots[--freeTop];
+    }
+
+    /// io_uring_enter 的调用次数
+    public long enterCalls() {
+        return ring.enterCalls();
+    }
+
+    /// 已完成的读请求数
+    public long completed() {
+        return completed;
+    }
+
+    @Override
+    public void close() {
+        ring.close();
+    }
+}
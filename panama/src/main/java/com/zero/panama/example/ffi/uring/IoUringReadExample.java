@@ -0,0 +1,132 @@
+package com.zero.panama.example.ffi.uring;
+
+import java.lang.foreign.*;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * io_uring 异步读取示例: 在一个线程上同时发起数千个文件读取, 并与 FileChannel 逐个阻塞读取对比.
+ * 运行参数: [tasks=4096] [readsPerTask=8] [blockSize=4096]
+ * 需要 --enable-native-access=ALL-UNNAMED, 以及允许 io_uring 的内核(部分容器会通过 seccomp 禁用).
+ *
+ * @author Zero.
+ * <p> Created on 2026/10/18 18:10 </p>
+ */
+public class IoUringReadExample {
+    private static final int O_RDONLY = 0;
+    private static final long FILE_SIZE = 64L << 20;
+
+    public static void main(String[] args) throws Throwable {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+        int readsPerTask = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int blockSize = args.length > 2 ? Integer.parseInt(args[2]) : 4096;
+
+        Path file = Files.createTempFile("io_uring", ".dat");
+        try {
+            writeFile(file);
+            // 所有任务使用相同的随机偏移量, 方便校验两种方式读到的内容一致
+            long[] offsets = new long[tasks * readsPerTask];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = ThreadLocalRandom.current().nextLong(FILE_SIZE / blockSize) * blockSize;
+            }
+
+            long start = System.nanoTime();
+            long uringSum = readWithIoUring(file, offsets, tasks, readsPerTask, blockSize);
+            long uringNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long channelSum = readWithFileChannel(file, offsets, blockSize);
+            long channelNanos = System.nanoTime() - start;
+
+            System.out.printf("io_uring:    %d reads, %d ms, checksum %d%n", offsets.length, uringNanos / 1_000_000, uringSum);
+            System.out.printf("FileChannel: %d reads, %d ms, checksum %d%n", offsets.length, channelNanos / 1_000_000, channelSum);
+            if (uringSum != channelSum) {
+                throw new IllegalStateException("checksum mismatch");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long readWithIoUring(Path file, long[] offsets, int tasks, int readsPerTask, int blockSize) throws Throwable {
+        Linker linker = Linker.nativeLinker();
+        // int open(const char *pathname, int flags, ...)
+        MethodHandle open = linker.downcallHandle(linker.defaultLookup().findOrThrow("open"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.JAVA_INT));
+        // int close(int fd)
+        MethodHandle close = linker.downcallHandle(linker.defaultLookup().findOrThrow("close"),
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT));
+
+        try (Arena arena = Arena.ofConfined();
+             IoUringFileReader reader = new IoUringFileReader(1024)) {
+            int fd = (int) open.invokeExact(arena.allocateFrom(file.toString()), O_RDONLY);
+            if (fd < 0) {
+                throw new IllegalStateException("open failed: " + file);
+            }
+            long[] sums = new long[tasks];
+            for (int t = 0; t < tasks; t++) {
+                int task = t;
+                reader.spawn(() -> {
+                    // 每个任务独占一块缓冲区, 请求完成前保持有效
+                    MemorySegment buffer = arena.allocate(blockSize, 4096);
+                    for (int i = 0; i < readsPerTask; i++) {
+                        int n = reader.read(fd, buffer, offsets[task * readsPerTask + i]);
+                        if (n != blockSize) {
+                            throw new IllegalStateException("read failed: " + n);
+                        }
+                        sums[task] += checksum(buffer.asByteBuffer());
+                    }
+                });
+            }
+            reader.run();
+            int rc = (int) close.invokeExact(fd);
+            System.out.printf("io_uring_enter calls: %d for %d reads%n", reader.enterCalls(), reader.completed());
+            long sum = 0;
+            for (long s : sums) {
+                sum += s;
+            }
+            return sum;
+        }
+    }
+
+    private static long readWithFileChannel(Path file, long[] offsets, int blockSize) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(blockSize);
+            long sum = 0;
+            for (long offset : offsets) {
+                buffer.clear();
+                while (buffer.hasRemaining()) {
+                    channel.read(buffer, offset + buffer.position());
+                }
+                sum += checksum(buffer.flip());
+            }
+            return sum;
+        }
+    }
+
+    private static void writeFile(Path file) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(1 << 20);
+            for (long written = 0; written < FILE_SIZE; written += chunk.capacity()) {
+                ThreadLocalRandom.current().nextBytes(chunk.array());
+                chunk.clear();
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+        }
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        long sum = 0;
+        while (buffer.remaining() >= Long.BYTES) {
+            sum += buffer.getLong();
+        }
+        return sum;
+    }
+}